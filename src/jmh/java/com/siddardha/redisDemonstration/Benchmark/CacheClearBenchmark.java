@@ -0,0 +1,117 @@
+package com.siddardha.redisDemonstration.Benchmark;
+
+import com.siddardha.redisDemonstration.Cache.CacheGenerations;
+import com.siddardha.redisDemonstration.Cache.GenerationalCacheWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.cache.Cache;
+import org.springframework.data.redis.cache.BatchStrategies;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import redis.embedded.RedisServer;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Clearing one cache (the allEntries=true eviction, Cache.clear()) while Redis holds a million unrelated keys:
+ * - keys: the default RedisCacheWriter, KEYS <prefix>* then DEL, blocking Redis for the whole walk.
+ * - scan: the same with SCAN in batches of 1000, non-blocking but still O(keyspace).
+ * - generations: GenerationalCacheWriter, one INCR (and a publish) whatever the keyspace holds.
+ * The cache gets ENTRIES entries again before every clear, outside the timing.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class CacheClearBenchmark {
+
+    private static final int FILLER_KEYS = 1_000_000;
+    private static final int ENTRIES = 1_000;
+    private static final String CACHE = "employee";
+
+    @Param({"keys", "scan", "generations"})
+    public String strategy;
+
+    private RedisServer redisServer;
+    private LettuceConnectionFactory connectionFactory;
+    private Cache cache;
+
+    @Setup(Level.Trial)
+    public void start() throws IOException {
+        int port = freePort();
+        redisServer = new RedisServer(port);
+        redisServer.start();
+        connectionFactory = new LettuceConnectionFactory(new RedisStandaloneConfiguration("localhost", port));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        try (RedisConnection connection = connectionFactory.getConnection()) {
+            // filler:0 .. filler:999999, created server-side in one command
+            connection.execute("DEBUG", "POPULATE".getBytes(StandardCharsets.UTF_8),
+                    String.valueOf(FILLER_KEYS).getBytes(StandardCharsets.UTF_8),
+                    "filler".getBytes(StandardCharsets.UTF_8));
+        }
+
+        RedisCacheConfiguration configuration = RedisCacheConfiguration.defaultCacheConfig()
+                .entryTtl(Duration.ofMinutes(5));
+        RedisCacheWriter writer = switch (strategy) {
+            case "keys" -> RedisCacheWriter.nonLockingRedisCacheWriter(connectionFactory);
+            case "scan" -> RedisCacheWriter.nonLockingRedisCacheWriter(connectionFactory, BatchStrategies.scan(1000));
+            case "generations" -> {
+                StringRedisTemplate template = new StringRedisTemplate(connectionFactory);
+                CacheGenerations generations = new CacheGenerations(template, "cache:generations", Duration.ofSeconds(5));
+                configuration = configuration.computePrefixWith(generations);
+                yield new GenerationalCacheWriter(RedisCacheWriter.nonLockingRedisCacheWriter(connectionFactory), generations);
+            }
+            default -> throw new IllegalArgumentException("Unknown strategy " + strategy);
+        };
+        RedisCacheManager cacheManager = RedisCacheManager.builder(writer).cacheDefaults(configuration).build();
+        cacheManager.afterPropertiesSet();
+        cache = cacheManager.getCache(CACHE);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() throws IOException {
+        connectionFactory.destroy();
+        redisServer.stop();
+    }
+
+    @Setup(Level.Invocation)
+    public void fill() {
+        for (long id = 0; id < ENTRIES; id++) {
+            cache.put(id, "Employee Number " + id);
+        }
+    }
+
+    @Benchmark
+    public void clear() {
+        cache.clear();
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.siddardha.redisDemonstration.Benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.siddardha.redisDemonstration.Cache.SmileRedisSerializer;
+import com.siddardha.redisDemonstration.DTO.EmployeePageResponse;
+import com.siddardha.redisDemonstration.DTO.EmployeeResponse;
+import com.siddardha.redisDemonstration.Model.Employee;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encode/decode cost and stored size of cache values per codec.
+ * - json: the GenericJackson2JsonRedisSerializer with default typing that RedisConfig uses for caches not listed
+ *   in cache.codecs (class names embedded in every value).
+ * - smile / smile-lz4: SmileRedisSerializer as configured through cache.codecs, threshold 512 bytes.
+ * The encoded size of the value is printed once per run (it does not vary between calls).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class CacheSerializerBenchmark {
+
+    @Param({"json", "smile", "smile-lz4"})
+    public String codec;
+
+    // employee: one "employee" cache entry; page: one 50-row "employees" listing page
+    @Param({"employee", "page"})
+    public String payload;
+
+    private RedisSerializer<Object> serializer;
+    private Object value;
+    private byte[] encoded;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setup() {
+        value = payload.equals("page") ? page(50) : employee(1);
+        Class<?> type = value.getClass();
+        serializer = (RedisSerializer<Object>) switch (codec) {
+            case "json" -> {
+                ObjectMapper om = Jackson2ObjectMapperBuilder.json().build();
+                om.enableDefaultTyping(ObjectMapper.DefaultTyping.NON_FINAL);
+                yield new GenericJackson2JsonRedisSerializer(om);
+            }
+            case "smile" -> new SmileRedisSerializer<>(type, -1);
+            case "smile-lz4" -> new SmileRedisSerializer<>(type, 512);
+            default -> throw new IllegalArgumentException(codec);
+        };
+        encoded = serializer.serialize(value);
+        System.out.printf("%n[%s/%s] encoded size: %d bytes%n", codec, payload, encoded.length);
+    }
+
+    @Benchmark
+    public byte[] encode() {
+        return serializer.serialize(value);
+    }
+
+    @Benchmark
+    public Object decode() {
+        return serializer.deserialize(encoded);
+    }
+
+    private static Employee employee(long id) {
+        return new Employee(id, "EMP-" + id, "Employee Number " + id, "Software Engineer", 85_000.0 + id, 0L);
+    }
+
+    private static EmployeePageResponse page(int size) {
+        EmployeePageResponse page = new EmployeePageResponse();
+        for (long id = 1; id <= size; id++) {
+            EmployeeResponse row = new EmployeeResponse();
+            row.setId(id);
+            row.setEmployeeId("EMP-" + id);
+            row.setName("Employee Number " + id);
+            row.setRole(id % 3 == 0 ? "Manager" : "Software Engineer");
+            row.setSalary(85_000.0 + id);
+            page.getContent().add(row);
+        }
+        page.setNextCursor((long) size);
+        page.setHasNext(true);
+        page.setSize(size);
+        return page;
+    }
+}
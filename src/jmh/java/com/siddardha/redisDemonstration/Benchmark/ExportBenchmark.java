@@ -0,0 +1,183 @@
+package com.siddardha.redisDemonstration.Benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.siddardha.redisDemonstration.DTO.EmployeeResponse;
+import com.siddardha.redisDemonstration.Mapper.EmployeeMapper;
+import com.siddardha.redisDemonstration.Model.Employee;
+import com.siddardha.redisDemonstration.RedisDemonstrationApplication;
+import com.siddardha.redisDemonstration.Repository.EmployeeRepository;
+import com.siddardha.redisDemonstration.Service.EmployeeService;
+import com.sun.management.GarbageCollectionNotificationInfo;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import redis.embedded.RedisServer;
+
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryUsage;
+import java.net.ServerSocket;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The NDJSON export against the real application context (H2 in memory, embedded Redis) with 100k and 1M rows,
+ * written to a null OutputStream:
+ * - stream: EmployeeService.exportEmployees, a database cursor with a fetch size.
+ * - list: what the export replaced, every entity loaded into a List first, then written.
+ * Besides the time, liveHeapGrowthMb reports how far the heap still in use after a GC rose above the level before
+ * the export (JMH sums it over the measurement iterations): flat across row counts for stream, growing with them
+ * for list. The gc profiler the benchmark profile runs with adds allocation rates and GC counts.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+public class ExportBenchmark {
+
+    @Param({"100000", "1000000"})
+    public int rows;
+
+    private RedisServer redisServer;
+    private ConfigurableApplicationContext context;
+
+    private EmployeeService employeeService;
+    private EmployeeRepository employeeRepository;
+    private TransactionTemplate readOnlyTransaction;
+    private ObjectWriter writer;
+
+    @Setup(Level.Trial)
+    public void start() throws IOException {
+        int port = freePort();
+        redisServer = new RedisServer(port);
+        redisServer.start();
+        context = new SpringApplicationBuilder(RedisDemonstrationApplication.class)
+                .properties(
+                        "server.port=0",
+                        "spring.data.redis.port=" + port,
+                        "logging.level.root=WARN",
+                        "spring.jpa.show-sql=false",
+                        "jwt.secret=0123456789abcdef0123456789abcdef0123456789abcdef")
+                .run();
+
+        // generated inside H2 in one statement: going through JPA would take longer than the benchmark
+        context.getBean(JdbcTemplate.class).update("""
+                insert into employee (id, employee_id, name, role, salary, version)
+                select x, 'EMP-' || x, 'Employee Number ' || x, 'Software Engineer', 85000 + mod(x, 1000), 0
+                from system_range(1, ?)""", rows);
+
+        employeeService = context.getBean(EmployeeService.class);
+        employeeRepository = context.getBean(EmployeeRepository.class);
+        readOnlyTransaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnlyTransaction.setReadOnly(true);
+        writer = context.getBean(ObjectMapper.class).writerFor(EmployeeResponse.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() throws IOException {
+        context.close();
+        redisServer.stop();
+    }
+
+    /** Heap in use after each GC during one export, above the level right before it. */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class LiveHeap {
+
+        public long liveHeapGrowthMb;
+
+        private final AtomicLong maxAfterGc = new AtomicLong();
+        private final NotificationListener listener = (notification, handback) -> {
+            if (GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(notification.getType())) {
+                GarbageCollectionNotificationInfo info =
+                        GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData());
+                long used = info.getGcInfo().getMemoryUsageAfterGc().values().stream()
+                        .mapToLong(MemoryUsage::getUsed)
+                        .sum();
+                maxAfterGc.accumulateAndGet(used, Math::max);
+            }
+        };
+        private long before;
+
+        @Setup(Level.Trial)
+        public void listen() {
+            for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+                ((NotificationEmitter) gc).addNotificationListener(listener, null, null);
+            }
+        }
+
+        @Setup(Level.Invocation)
+        public void baseline() {
+            System.gc();
+            before = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+            maxAfterGc.set(before);
+        }
+
+        @TearDown(Level.Invocation)
+        public void record() throws InterruptedException {
+            // GC notifications arrive asynchronously
+            Thread.sleep(100);
+            liveHeapGrowthMb = Math.max(0, maxAfterGc.get() - before) / (1024 * 1024);
+        }
+
+        @TearDown(Level.Trial)
+        public void unlisten() throws Exception {
+            for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+                ((NotificationEmitter) gc).removeNotificationListener(listener);
+            }
+        }
+    }
+
+    @Benchmark
+    public long stream(LiveHeap heap) throws IOException {
+        return employeeService.exportEmployees(OutputStream.nullOutputStream());
+    }
+
+    @Benchmark
+    public long list(LiveHeap heap) {
+        return readOnlyTransaction.execute(status -> {
+            OutputStream out = OutputStream.nullOutputStream();
+            List<Employee> employees = employeeRepository.findAll();
+            try {
+                for (Employee emp : employees) {
+                    out.write(writer.writeValueAsBytes(EmployeeMapper.mapToResponse(emp)));
+                    out.write('\n');
+                }
+            } catch (IOException ex) {
+                throw new IllegalStateException(ex);
+            }
+            return (long) employees.size();
+        });
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.siddardha.redisDemonstration.Benchmark;
+
+import com.siddardha.redisDemonstration.Util.JwtUtil;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.security.Key;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of authenticating a bearer token.
+ * - legacy: the pre-rewrite path, key and parser rebuilt and the token verified twice (username + validity).
+ * - verifyMiss: one parse against the shared parser, for tokens not seen recently.
+ * - verifyRepeat: a client sending the same token again (verified-token cache hit).
+ * - issue: signing a new token at login.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class JwtVerificationBenchmark {
+
+    private static final String SECRET = "0123456789abcdef0123456789abcdef0123456789abcdef";
+    // far more distinct tokens than the miss-path cache holds, so nearly every call verifies
+    private static final int TOKENS = 1 << 16;
+
+    private JwtUtil jwtUtil;
+    private JwtUtil smallCacheJwtUtil;
+    private String[] tokens;
+    private int next;
+
+    @Setup
+    public void setup() {
+        jwtUtil = new JwtUtil(SECRET, 10_000, new SimpleMeterRegistry());
+        smallCacheJwtUtil = new JwtUtil(SECRET, 1_024, new SimpleMeterRegistry());
+        tokens = new String[TOKENS];
+        for (int i = 0; i < TOKENS; i++) {
+            tokens[i] = jwtUtil.generateToken("user-" + i);
+        }
+    }
+
+    @Benchmark
+    public void legacy(Blackhole bh) {
+        String token = tokens[next++ & (TOKENS - 1)];
+        bh.consume(LegacyJwtUtil.extractUsername(token));
+        bh.consume(LegacyJwtUtil.validateToken(token));
+    }
+
+    @Benchmark
+    public Claims verifyMiss() {
+        return smallCacheJwtUtil.verify(tokens[next++ & (TOKENS - 1)]);
+    }
+
+    @Benchmark
+    public Claims verifyRepeat() {
+        return jwtUtil.verify(tokens[0]);
+    }
+
+    @Benchmark
+    public String issue() {
+        return jwtUtil.generateToken("user-0");
+    }
+
+    /** JwtUtil as it was before the single-parse rewrite. */
+    static final class LegacyJwtUtil {
+
+        private static Key getSigningKey() {
+            return Keys.hmacShaKeyFor(SECRET.getBytes());
+        }
+
+        static String extractUsername(String token) {
+            return Jwts.parserBuilder()
+                    .setSigningKey(getSigningKey())
+                    .build()
+                    .parseClaimsJws(token)
+                    .getBody()
+                    .getSubject();
+        }
+
+        static boolean validateToken(String token) {
+            try {
+                Jwts.parserBuilder()
+                        .setSigningKey(getSigningKey())
+                        .build()
+                        .parseClaimsJws(token);
+                return true;
+            } catch (Exception e) {
+                return false;
+            }
+        }
+    }
+}
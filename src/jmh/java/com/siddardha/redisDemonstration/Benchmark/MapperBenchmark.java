@@ -0,0 +1,60 @@
+package com.siddardha.redisDemonstration.Benchmark;
+
+import com.siddardha.redisDemonstration.DTO.EmployeeRequest;
+import com.siddardha.redisDemonstration.DTO.EmployeeResponse;
+import com.siddardha.redisDemonstration.Mapper.EmployeeCsvMapper;
+import com.siddardha.redisDemonstration.Mapper.EmployeeMapper;
+import com.siddardha.redisDemonstration.Model.Employee;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mapper throughput: entity to response DTO (every read endpoint) and CSV parsing (bulk import, 1000 rows).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class MapperBenchmark {
+
+    private static final int CSV_ROWS = 1_000;
+
+    private Employee employee;
+    private String csv;
+
+    @Setup
+    public void setup() {
+        employee = new Employee(1L, "EMP-1", "Employee Number 1", "Software Engineer", 85_000.0, 0L);
+        StringBuilder sb = new StringBuilder("employeeId,name,role,salary\n");
+        for (int i = 0; i < CSV_ROWS; i++) {
+            sb.append("EMP-").append(i).append(",\"Number, Employee ").append(i).append("\",Software Engineer,")
+                    .append(85_000 + i).append('\n');
+        }
+        csv = sb.toString();
+    }
+
+    @Benchmark
+    public EmployeeResponse mapToResponse() {
+        return EmployeeMapper.mapToResponse(employee);
+    }
+
+    @Benchmark
+    public List<EmployeeRequest> parseCsv() throws IOException {
+        return EmployeeCsvMapper.parse(new StringReader(csv));
+    }
+}
@@ -0,0 +1,152 @@
+package com.siddardha.redisDemonstration.Benchmark;
+
+import com.siddardha.redisDemonstration.DTO.EmployeePageResponse;
+import com.siddardha.redisDemonstration.Model.Employee;
+import com.siddardha.redisDemonstration.RedisDemonstrationApplication;
+import com.siddardha.redisDemonstration.Repository.EmployeeRepository;
+import com.siddardha.redisDemonstration.Service.EmployeeService;
+import com.siddardha.redisDemonstration.Service.LocalRateLimiterService;
+import com.siddardha.redisDemonstration.Service.RateLimitDecision;
+import com.siddardha.redisDemonstration.Service.RedisLimiterService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import redis.embedded.RedisServer;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Service-level hot paths against the real application context: H2 in memory and an embedded Redis server
+ * on a free port, so the run needs no external services.
+ * - employee lookups: near-cache hit, Redis-only hit, full miss (cache evicted before each call, outside the timing).
+ * - listing: cached keyset page.
+ * - rate limiting: Lua sliding window per request vs. the local token-bucket pre-filter.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ServiceBenchmark {
+
+    private static final int EMPLOYEES = 1_000;
+    private static final String ROUTE = "bench";
+
+    private RedisServer redisServer;
+    private ConfigurableApplicationContext context;
+
+    private EmployeeService employeeService;
+    private Cache employeeCache;
+    private Cache employeeRedisCache;
+    private RedisLimiterService redisLimiterService;
+    private LocalRateLimiterService localRateLimiterService;
+    private long hotId;
+    private long missId;
+
+    @Setup(Level.Trial)
+    public void start() throws IOException {
+        int port = freePort();
+        redisServer = new RedisServer(port);
+        redisServer.start();
+        context = new SpringApplicationBuilder(RedisDemonstrationApplication.class)
+                .properties(
+                        "server.port=0",
+                        "spring.data.redis.port=" + port,
+                        "logging.level.root=WARN",
+                        "spring.jpa.show-sql=false",
+                        "jwt.secret=0123456789abcdef0123456789abcdef0123456789abcdef",
+                        // effectively unlimited, so every call takes the "allowed" path
+                        "rate-limit.routes." + ROUTE + ".standard.limit=1000000000",
+                        "rate-limit.routes." + ROUTE + ".standard.window=1s")
+                .run();
+
+        EmployeeRepository repository = context.getBean(EmployeeRepository.class);
+        List<Employee> employees = new ArrayList<>(EMPLOYEES);
+        for (int i = 0; i < EMPLOYEES; i++) {
+            employees.add(new Employee(null, "EMP-" + i, "Employee Number " + i, "Software Engineer", 85_000.0 + i, null));
+        }
+        employees = repository.saveAll(employees);
+        hotId = employees.get(0).getId();
+        missId = employees.get(1).getId();
+
+        employeeService = context.getBean(EmployeeService.class);
+        employeeCache = context.getBean("cacheManager", CacheManager.class).getCache("employee");
+        employeeRedisCache = context.getBean(RedisCacheManager.class).getCache("employee");
+        redisLimiterService = context.getBean(RedisLimiterService.class);
+        localRateLimiterService = context.getBean(LocalRateLimiterService.class);
+
+        employeeService.getEmployee(hotId);
+        employeeService.getEmployeePage(0L, 50);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() throws IOException {
+        context.close();
+        redisServer.stop();
+    }
+
+    /** Evicts the miss id (both tiers) before every call of the benchmark that uses it, outside the timing. */
+    @State(Scope.Thread)
+    public static class EvictedEmployee {
+
+        @Setup(Level.Invocation)
+        public void evict(ServiceBenchmark benchmark) {
+            benchmark.employeeCache.evict(benchmark.missId);
+        }
+    }
+
+    @Benchmark
+    public Employee employeeNearCacheHit() {
+        return employeeService.getEmployee(hotId);
+    }
+
+    @Benchmark
+    public Employee employeeRedisCacheHit() {
+        return employeeRedisCache.get(hotId, Employee.class);
+    }
+
+    @Benchmark
+    public Employee employeeCacheMiss(EvictedEmployee evicted) {
+        return employeeService.getEmployee(missId);
+    }
+
+    @Benchmark
+    public EmployeePageResponse employeePageHit() {
+        return employeeService.getEmployeePage(0L, 50);
+    }
+
+    @Benchmark
+    public RateLimitDecision rateLimitRedis() {
+        return redisLimiterService.isAllowed(ROUTE, RedisLimiterService.STANDARD_TIER, "redis-user");
+    }
+
+    @Benchmark
+    public RateLimitDecision rateLimitHybrid() {
+        return localRateLimiterService.isAllowed(ROUTE, RedisLimiterService.STANDARD_TIER, "hybrid-user");
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
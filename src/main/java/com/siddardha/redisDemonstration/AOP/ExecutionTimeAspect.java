@@ -1,28 +1,89 @@
 package com.siddardha.redisDemonstration.AOP;
 
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times every public service method into a per-method Micrometer timer (service.method.duration{class,method,outcome}),
+ * published as a percentile histogram on /actuator/prometheus.
+ * - Timers are looked up once per method and cached, so a call costs two nanoTime reads, a map lookup and a record.
+ *   (Not per join point: Spring AOP creates a new one, static part included, for every call.)
+ * - A log line is only written for calls slower than service.timing.slow-threshold, or for the
+ *   service.timing.log-sample-rate fraction of calls picked at random.
+ */
 @Component
 @Aspect
 public class ExecutionTimeAspect {
 
     private final static Logger log = LoggerFactory.getLogger(ExecutionTimeAspect.class);
 
+    private final MeterRegistry meterRegistry;
+    private final long slowThresholdNanos;
+    private final double logSampleRate;
+    private final ConcurrentMap<Method, MethodTimers> timers = new ConcurrentHashMap<>();
+
+    public ExecutionTimeAspect(MeterRegistry meterRegistry,
+                               @Value("${service.timing.slow-threshold:500ms}") Duration slowThreshold,
+                               @Value("${service.timing.log-sample-rate:0}") double logSampleRate) {
+        this.meterRegistry = meterRegistry;
+        this.slowThresholdNanos = slowThreshold.toNanos();
+        this.logSampleRate = logSampleRate;
+    }
+
     @Around("execution(public * com.siddardha.redisDemonstration.Service..*(..))")
     public Object logExecutionTime(ProceedingJoinPoint pjp) throws Throwable {
-        Long start = System.nanoTime();
+        long start = System.nanoTime();
+        boolean failed = true;
         try {
-            return pjp.proceed();
+            Object result = pjp.proceed();
+            failed = false;
+            return result;
         } finally {
-            long durationMs = (System.nanoTime() - start) / 1_000_000;
-            // toShortString → ClassName.method(..)
-            log.info("{} executed in {} ms", pjp.getSignature().toShortString(), durationMs);
+            long duration = System.nanoTime() - start;
+            Method method = ((MethodSignature) pjp.getSignature()).getMethod();
+            MethodTimers methodTimers = timers.computeIfAbsent(method, this::register);
+            (failed ? methodTimers.error : methodTimers.success).record(duration, TimeUnit.NANOSECONDS);
+            if (duration >= slowThresholdNanos) {
+                // toShortString → ClassName.method(..)
+                log.warn("Slow call: {} executed in {} ms", pjp.getSignature().toShortString(), duration / 1_000_000);
+            } else if (logSampleRate > 0 && ThreadLocalRandom.current().nextDouble() < logSampleRate) {
+                log.info("{} executed in {} ms", pjp.getSignature().toShortString(), duration / 1_000_000);
+            }
         }
     }
+
+    private MethodTimers register(Method method) {
+        String className = method.getDeclaringClass().getSimpleName();
+        String name = method.getName();
+        return new MethodTimers(timer(className, name, "success"), timer(className, name, "error"));
+    }
+
+    private Timer timer(String className, String method, String outcome) {
+        return Timer.builder("service.method.duration")
+                .description("Execution time of public service methods")
+                .tag("class", className)
+                .tag("method", method)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private record MethodTimers(Timer success, Timer error) {
+    }
 }
@@ -0,0 +1,104 @@
+package com.siddardha.redisDemonstration.Cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.cache.CacheKeyPrefix;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Generation-versioned key prefixes for the Redis caches: entries of cache "employee" in generation 3 live under
+ * {@code employee:v3::<key>}. Clearing a cache moves it to the next generation (one INCR on
+ * cache:generation:<name>) instead of deleting its keys; the old generation is never read again and expires by TTL.
+ * - Each node keeps the generations in memory. A new generation is pushed to the other nodes over
+ *   cache.generations.channel and re-read from Redis every cache.generations.refresh-interval in case a
+ *   message was lost.
+ * - Generations only move forward, so a late message or read never brings back an old one.
+ */
+public class CacheGenerations implements CacheKeyPrefix, MessageListener {
+
+    private static final Logger log = LoggerFactory.getLogger(CacheGenerations.class);
+
+    private static final String COUNTER_PREFIX = "cache:generation:";
+
+    private final StringRedisTemplate redisTemplate;
+    private final String channel;
+    private final long refreshIntervalNanos;
+    private final ConcurrentMap<String, Generation> generations = new ConcurrentHashMap<>();
+
+    public CacheGenerations(StringRedisTemplate redisTemplate, String channel, Duration refreshInterval) {
+        this.redisTemplate = redisTemplate;
+        this.channel = channel;
+        this.refreshIntervalNanos = refreshInterval.toNanos();
+    }
+
+    @Override
+    public String compute(String cacheName) {
+        return cacheName + ":v" + current(cacheName) + SEPARATOR;
+    }
+
+    public long current(String cacheName) {
+        long now = System.nanoTime();
+        Generation known = generations.get(cacheName);
+        if (known == null) {
+            return advanceTo(cacheName, read(cacheName, 0), now);
+        }
+        // one caller re-reads the counter, the others go on with the value they have
+        if (now - known.readAt() > refreshIntervalNanos
+                && generations.replace(cacheName, known, new Generation(known.value(), now))) {
+            return advanceTo(cacheName, read(cacheName, known.value()), now);
+        }
+        return known.value();
+    }
+
+    /** Starts the next generation of the cache, i.e. clears it for every node. */
+    public long next(String cacheName) {
+        long known = current(cacheName);
+        String counter = COUNTER_PREFIX + cacheName;
+        Long next = redisTemplate.opsForValue().increment(counter);
+        if (next == null || next <= known) {
+            // the counter was lost (Redis restarted empty): continue above what this node has seen
+            next = known + 1;
+            redisTemplate.opsForValue().set(counter, String.valueOf(next));
+        }
+        long generation = advanceTo(cacheName, next, System.nanoTime());
+        try {
+            redisTemplate.convertAndSend(channel, cacheName + "\n" + generation);
+        } catch (RuntimeException ex) {
+            log.warn("Could not publish generation {} of cache {}: {}", generation, cacheName, ex.getMessage());
+        }
+        return generation;
+    }
+
+    private long read(String cacheName, long fallback) {
+        try {
+            String value = redisTemplate.opsForValue().get(COUNTER_PREFIX + cacheName);
+            return value == null ? 0 : Long.parseLong(value);
+        } catch (RuntimeException ex) {
+            log.debug("Could not read generation of cache {}: {}", cacheName, ex.getMessage());
+            return fallback;
+        }
+    }
+
+    private long advanceTo(String cacheName, long value, long readAt) {
+        return generations.merge(cacheName, new Generation(value, readAt),
+                (old, fresh) -> fresh.value() >= old.value() ? fresh : new Generation(old.value(), readAt)).value();
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split("\n", 2);
+        if (parts.length == 2) {
+            advanceTo(parts[0], Long.parseLong(parts[1]), System.nanoTime());
+        }
+    }
+
+    private record Generation(long value, long readAt) {
+    }
+}
@@ -0,0 +1,105 @@
+package com.siddardha.redisDemonstration.Cache;
+
+import org.springframework.data.redis.cache.CacheStatistics;
+import org.springframework.data.redis.cache.CacheStatisticsCollector;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * RedisCacheWriter whose commands go through the RedisCircuitBreaker. Sits below GenerationalCacheWriter, whose
+ * generation changes already go through the (circuit-breaking) template.
+ */
+public class CircuitBreakingCacheWriter implements RedisCacheWriter {
+
+    private final RedisCacheWriter delegate;
+    private final RedisCircuitBreaker circuitBreaker;
+
+    public CircuitBreakingCacheWriter(RedisCacheWriter delegate, RedisCircuitBreaker circuitBreaker) {
+        this.delegate = delegate;
+        this.circuitBreaker = circuitBreaker;
+    }
+
+    @Override
+    public byte[] get(String name, byte[] key) {
+        return circuitBreaker.call(() -> delegate.get(name, key));
+    }
+
+    @Override
+    public byte[] get(String name, byte[] key, Duration ttl) {
+        return circuitBreaker.call(() -> delegate.get(name, key, ttl));
+    }
+
+    // the loader reads the database: it runs outside the breaker, so its failures never count against Redis
+    @Override
+    public byte[] get(String name, byte[] key, Supplier<byte[]> valueLoader, Duration ttl, boolean timeToIdleEnabled) {
+        byte[] cached = timeToIdleEnabled ? get(name, key, ttl) : get(name, key);
+        if (cached != null) {
+            return cached;
+        }
+        byte[] loaded = valueLoader.get();
+        put(name, key, loaded, ttl);
+        return loaded;
+    }
+
+    @Override
+    public boolean supportsAsyncRetrieve() {
+        return delegate.supportsAsyncRetrieve();
+    }
+
+    @Override
+    public CompletableFuture<byte[]> retrieve(String name, byte[] key, Duration ttl) {
+        return circuitBreaker.callAsync(() -> delegate.retrieve(name, key, ttl));
+    }
+
+    @Override
+    public void put(String name, byte[] key, byte[] value, Duration ttl) {
+        circuitBreaker.call(() -> {
+            delegate.put(name, key, value, ttl);
+            return null;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Void> store(String name, byte[] key, byte[] value, Duration ttl) {
+        return circuitBreaker.callAsync(() -> delegate.store(name, key, value, ttl));
+    }
+
+    @Override
+    public byte[] putIfAbsent(String name, byte[] key, byte[] value, Duration ttl) {
+        return circuitBreaker.call(() -> delegate.putIfAbsent(name, key, value, ttl));
+    }
+
+    @Override
+    public void remove(String name, byte[] key) {
+        circuitBreaker.call(() -> {
+            delegate.remove(name, key);
+            return null;
+        });
+    }
+
+    @Override
+    public void clean(String name, byte[] pattern) {
+        circuitBreaker.call(() -> {
+            delegate.clean(name, pattern);
+            return null;
+        });
+    }
+
+    @Override
+    public void clearStatistics(String name) {
+        delegate.clearStatistics(name);
+    }
+
+    @Override
+    public RedisCacheWriter withStatisticsCollector(CacheStatisticsCollector cacheStatisticsCollector) {
+        return new CircuitBreakingCacheWriter(delegate.withStatisticsCollector(cacheStatisticsCollector), circuitBreaker);
+    }
+
+    @Override
+    public CacheStatistics getCacheStatistics(String cacheName) {
+        return delegate.getCacheStatistics(cacheName);
+    }
+}
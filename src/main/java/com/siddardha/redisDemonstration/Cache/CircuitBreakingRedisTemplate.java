@@ -0,0 +1,30 @@
+package com.siddardha.redisDemonstration.Cache;
+
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.io.Closeable;
+
+/**
+ * RedisTemplate whose commands go through the RedisCircuitBreaker. Every operation of the template (opsFor*,
+ * scripts, pipelines, publishing) ends up in {@link #execute(RedisCallback, boolean, boolean)}.
+ */
+public class CircuitBreakingRedisTemplate<K, V> extends RedisTemplate<K, V> {
+
+    private final RedisCircuitBreaker circuitBreaker;
+
+    public CircuitBreakingRedisTemplate(RedisCircuitBreaker circuitBreaker) {
+        this.circuitBreaker = circuitBreaker;
+    }
+
+    @Override
+    public <T> T execute(RedisCallback<T> action, boolean exposeConnection, boolean pipeline) {
+        return circuitBreaker.call(() -> super.execute(action, exposeConnection, pipeline));
+    }
+
+    // SCAN & co: only opening the cursor is guarded, it fetches the first batch
+    @Override
+    public <T extends Closeable> T executeWithStickyConnection(RedisCallback<T> callback) {
+        return circuitBreaker.call(() -> super.executeWithStickyConnection(callback));
+    }
+}
@@ -0,0 +1,30 @@
+package com.siddardha.redisDemonstration.Cache;
+
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.io.Closeable;
+
+/**
+ * StringRedisTemplate whose commands go through the RedisCircuitBreaker (see CircuitBreakingRedisTemplate).
+ */
+public class CircuitBreakingStringRedisTemplate extends StringRedisTemplate {
+
+    private final RedisCircuitBreaker circuitBreaker;
+
+    public CircuitBreakingStringRedisTemplate(RedisConnectionFactory connectionFactory, RedisCircuitBreaker circuitBreaker) {
+        super(connectionFactory);
+        this.circuitBreaker = circuitBreaker;
+    }
+
+    @Override
+    public <T> T execute(RedisCallback<T> action, boolean exposeConnection, boolean pipeline) {
+        return circuitBreaker.call(() -> super.execute(action, exposeConnection, pipeline));
+    }
+
+    @Override
+    public <T extends Closeable> T executeWithStickyConnection(RedisCallback<T> callback) {
+        return circuitBreaker.call(() -> super.executeWithStickyConnection(callback));
+    }
+}
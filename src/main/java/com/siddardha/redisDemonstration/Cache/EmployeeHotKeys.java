@@ -0,0 +1,120 @@
+package com.siddardha.redisDemonstration.Cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.connection.zset.Aggregate;
+import org.springframework.data.redis.connection.zset.Weights;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Access frequencies of employee ids, shared by all nodes, so a starting node knows which employee:: entries to
+ * preload (see WarmUpRunner).
+ * - Reads are counted in memory (at most warmup.hot-keys.local-max distinct ids between flushes) and added to the
+ *   sorted set employees:hot every warmup.hot-keys.flush-interval, in one pipeline.
+ * - Only the warmup.hot-keys.tracked most frequent ids are kept. Once per warmup.hot-keys.half-life, across all
+ *   nodes, every score is halved, so ids that stopped being read drop out.
+ */
+@Component
+public class EmployeeHotKeys implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(EmployeeHotKeys.class);
+
+    static final String HOT_KEY = "employees:hot";
+    private static final String DECAY_KEY = "employees:hot:decayed";
+
+    private final StringRedisTemplate redisTemplate;
+    private final int localMax;
+    private final int tracked;
+    private final long flushIntervalMillis;
+    private final Duration halfLife;
+    private final AtomicReference<Map<Long, LongAdder>> counts = new AtomicReference<>(new ConcurrentHashMap<>());
+    private ScheduledExecutorService flusher;
+
+    public EmployeeHotKeys(StringRedisTemplate redisTemplate,
+                           @Value("${warmup.hot-keys.local-max:10000}") int localMax,
+                           @Value("${warmup.hot-keys.tracked:5000}") int tracked,
+                           @Value("${warmup.hot-keys.flush-interval:30s}") Duration flushInterval,
+                           @Value("${warmup.hot-keys.half-life:6h}") Duration halfLife) {
+        this.redisTemplate = redisTemplate;
+        this.localMax = localMax;
+        this.tracked = tracked;
+        this.flushIntervalMillis = flushInterval.toMillis();
+        this.halfLife = halfLife;
+    }
+
+    public void recordAccess(long id) {
+        Map<Long, LongAdder> current = counts.get();
+        LongAdder count = current.get(id);
+        if (count == null) {
+            // ids first seen once the map is full are dropped: they are unlikely to be the hot ones
+            if (current.size() >= localMax) {
+                return;
+            }
+            count = current.computeIfAbsent(id, key -> new LongAdder());
+        }
+        count.increment();
+    }
+
+    /** @return up to n ids, most frequently read first */
+    public List<Long> top(int n) {
+        Set<String> ids = redisTemplate.opsForZSet().reverseRange(HOT_KEY, 0, n - 1L);
+        return ids == null ? List.of() : ids.stream().map(Long::valueOf).toList();
+    }
+
+    void flush() {
+        Map<Long, LongAdder> snapshot = counts.getAndSet(new ConcurrentHashMap<>());
+        if (snapshot.isEmpty()) {
+            return;
+        }
+        try {
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                StringRedisConnection redis = (StringRedisConnection) connection;
+                snapshot.forEach((id, count) -> redis.zIncrBy(HOT_KEY, count.sum(), String.valueOf(id)));
+                redis.zRemRange(HOT_KEY, 0, -(tracked + 1L));
+                return null;
+            });
+            if (Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(DECAY_KEY, "1", halfLife))) {
+                redisTemplate.opsForZSet().unionAndStore(HOT_KEY, List.of(), HOT_KEY, Aggregate.SUM, Weights.of(0.5));
+            }
+        } catch (RuntimeException ex) {
+            log.debug("Could not flush {} employee access counts: {}", snapshot.size(), ex.getMessage());
+        }
+    }
+
+    @Override
+    public void start() {
+        flusher = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "employee-hot-keys");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::flush, flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void stop() {
+        flusher.shutdownNow();
+        flush();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return flusher != null && !flusher.isShutdown();
+    }
+}
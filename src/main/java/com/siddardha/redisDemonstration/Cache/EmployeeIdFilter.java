@@ -0,0 +1,276 @@
+package com.siddardha.redisDemonstration.Cache;
+
+import com.siddardha.redisDemonstration.Repository.EmployeeRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.BitFieldSubCommands;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Membership filter for employee ids: a Redis bitmap with one bit per id (employees:ids), kept exact on
+ * create/import/delete, so lookups of ids that never existed are rejected without touching the database.
+ * - Ids come from a sequence, so a bitmap is smaller than a Bloom filter for the same rows and, unlike one,
+ *   supports deletes. Ids beyond the bitmap range are always passed through.
+ * - Bit 0 (never a valid id) marks the bitmap as built. Until then, or when Redis is unreachable, every id
+ *   passes (fail open); a missing bitmap (e.g. Redis lost its data) is rebuilt from the database in the background.
+ * - A passed id that turns out not to exist is a false positive (only possible while a rebuild races a delete,
+ *   or after a delete whose bit could not be cleared).
+ * - Ids whose bit could not be set (Redis down) are passed by this node and set again once Redis is back (when
+ *   the RedisCircuitBreaker closes, or with the next update). Past MAX_UNSET_IDS of them, the bitmap is dropped
+ *   and rebuilt instead.
+ */
+@Component
+public class EmployeeIdFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(EmployeeIdFilter.class);
+
+    static final String IDS_KEY = "employees:ids";
+    private static final String REBUILD_LOCK_KEY = "employees:ids:rebuild";
+    private static final long MAX_ID = (1L << 32) - 1;
+    private static final int REBUILD_BATCH = 1000;
+    private static final Duration REBUILD_LOCK_TTL = Duration.ofMinutes(5);
+    private static final long REBUILD_RETRY_MILLIS = Duration.ofMinutes(1).toMillis();
+    private static final int MAX_UNSET_IDS = 100_000;
+
+    private final StringRedisTemplate redisTemplate;
+    private final EmployeeRepository employeeRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final AtomicLong lastRebuildAttempt = new AtomicLong();
+    // ids of rows that exist but whose bit could not be set: passed by this node until it is
+    private final Set<Long> unsetIds = ConcurrentHashMap.newKeySet();
+    // too many unset ids to track: every id is passed until the bitmap has been dropped
+    private volatile boolean invalid;
+
+    private final Counter rejected;
+    private final Counter passed;
+    private final Counter falsePositives;
+
+    public EmployeeIdFilter(StringRedisTemplate redisTemplate,
+                            EmployeeRepository employeeRepository,
+                            PlatformTransactionManager transactionManager,
+                            RedisCircuitBreaker circuitBreaker,
+                            MeterRegistry meterRegistry) {
+        this.redisTemplate = redisTemplate;
+        this.employeeRepository = employeeRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        circuitBreaker.onClose(this::repair);
+
+        this.rejected = checks(meterRegistry, "rejected");
+        this.passed = checks(meterRegistry, "passed");
+        this.falsePositives = Counter.builder("employee.id.filter.false.positives")
+                .description("Ids the filter passed that did not exist")
+                .register(meterRegistry);
+        Gauge.builder("employee.id.filter.false.positive.ratio", this, EmployeeIdFilter::falsePositiveRatio)
+                .description("Share of nonexistent ids the filter failed to reject")
+                .register(meterRegistry);
+    }
+
+    private static Counter checks(MeterRegistry registry, String result) {
+        return Counter.builder("employee.id.filter.checks")
+                .tag("result", result)
+                .register(registry);
+    }
+
+    public enum Membership {
+        // the bitmap has no bit for this id: it certainly does not exist
+        ABSENT,
+        PRESENT,
+        // filter not built, Redis unreachable or id out of range: look it up
+        UNKNOWN
+    }
+
+    public Membership check(long id) {
+        if (id <= 0) {
+            return Membership.ABSENT;
+        }
+        if (id > MAX_ID || invalid || unsetIds.contains(id)) {
+            return Membership.UNKNOWN;
+        }
+        List<Long> bits;
+        try {
+            bits = redisTemplate.opsForValue().bitField(IDS_KEY, BitFieldSubCommands.create()
+                    .get(BitFieldSubCommands.BitFieldType.unsigned(1)).valueAt(0)
+                    .get(BitFieldSubCommands.BitFieldType.unsigned(1)).valueAt(id));
+        } catch (RuntimeException ex) {
+            return Membership.UNKNOWN;
+        }
+        if (bits == null || bits.size() < 2) {
+            return Membership.UNKNOWN;
+        }
+        if (bits.get(0) == 0) {
+            rebuildInBackground();
+            return Membership.UNKNOWN;
+        }
+        if (bits.get(1) == 0) {
+            rejected.increment();
+            return Membership.ABSENT;
+        }
+        passed.increment();
+        return Membership.PRESENT;
+    }
+
+    /** The filter reported PRESENT for an id the database has no row for. */
+    public void recordFalsePositive() {
+        falsePositives.increment();
+    }
+
+    public void added(long id) {
+        setBits(List.of(id), true);
+    }
+
+    public void addedAll(Collection<Long> ids) {
+        setBits(ids, true);
+    }
+
+    public void removed(long id) {
+        setBits(List.of(id), false);
+    }
+
+    private void setBits(Collection<Long> ids, boolean value) {
+        repair();
+        try {
+            writeBits(ids, value);
+        } catch (RuntimeException ex) {
+            if (!value) {
+                // a bit left set only costs a database lookup (a false positive)
+                log.debug("Could not clear employee id filter bits: {}", ex.getMessage());
+                return;
+            }
+            // a missed set bit would reject an existing id
+            log.warn("Could not update employee id filter ({}), passing {} id(s) until Redis is back",
+                    ex.getMessage(), ids.size());
+            if (invalid || unsetIds.size() + ids.size() > MAX_UNSET_IDS) {
+                invalid = true;
+                unsetIds.clear();
+            } else {
+                unsetIds.addAll(ids);
+            }
+        }
+    }
+
+    /** Sets the bits that could not be set while Redis was unavailable, or drops the bitmap if there were too many. */
+    void repair() {
+        if (invalid) {
+            if (invalidate()) {
+                // the rebuild reads the rows from the database, including the ones whose bits were missed
+                invalid = false;
+                log.info("Employee id filter dropped after Redis was unavailable; it is rebuilt on the next lookup");
+            }
+            return;
+        }
+        if (unsetIds.isEmpty()) {
+            return;
+        }
+        List<Long> ids = new ArrayList<>(unsetIds);
+        try {
+            writeBits(ids, true);
+            // a delete racing with this leaves its bit set: a false positive, not a wrong 404
+            ids.forEach(unsetIds::remove);
+            log.info("Employee id filter: {} id(s) set after Redis was unavailable", ids.size());
+        } catch (RuntimeException ex) {
+            log.debug("Employee id filter still not writable: {}", ex.getMessage());
+        }
+    }
+
+    private void writeBits(Collection<Long> ids, boolean value) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection redis = (StringRedisConnection) connection;
+            for (long id : ids) {
+                if (id > 0 && id <= MAX_ID) {
+                    redis.setBit(IDS_KEY, id, value);
+                }
+            }
+            return null;
+        });
+    }
+
+    private boolean invalidate() {
+        try {
+            redisTemplate.delete(IDS_KEY);
+            return true;
+        } catch (RuntimeException ex) {
+            log.warn("Could not invalidate employee id filter {}: {}", IDS_KEY, ex.getMessage());
+            return false;
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        rebuildInBackground();
+    }
+
+    private void rebuildInBackground() {
+        long now = System.currentTimeMillis();
+        long last = lastRebuildAttempt.get();
+        if (now - last < REBUILD_RETRY_MILLIS || !lastRebuildAttempt.compareAndSet(last, now)) {
+            return;
+        }
+        CompletableFuture.runAsync(this::rebuildIfMissing);
+    }
+
+    void rebuildIfMissing() {
+        try {
+            if (Boolean.TRUE.equals(redisTemplate.opsForValue().getBit(IDS_KEY, 0))) {
+                return;
+            }
+            if (!Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(REBUILD_LOCK_KEY, "1", REBUILD_LOCK_TTL))) {
+                return;
+            }
+            try {
+                // bits are set on the live key: ids added meanwhile keep their bit, lookups pass until bit 0 is set
+                long count = readOnlyTransaction.execute(status -> {
+                    long loaded = 0;
+                    List<Long> batch = new ArrayList<>(REBUILD_BATCH);
+                    try (Stream<Long> ids = employeeRepository.streamAllIds()) {
+                        for (Long id : (Iterable<Long>) ids::iterator) {
+                            batch.add(id);
+                            if (batch.size() == REBUILD_BATCH) {
+                                writeBits(batch, true);
+                                loaded += batch.size();
+                                batch.clear();
+                            }
+                        }
+                    }
+                    writeBits(batch, true);
+                    return loaded + batch.size();
+                });
+                redisTemplate.opsForValue().setBit(IDS_KEY, 0, true);
+                log.info("Employee id filter built with {} ids", count);
+            } finally {
+                redisTemplate.delete(REBUILD_LOCK_KEY);
+            }
+        } catch (RuntimeException ex) {
+            log.warn("Could not build employee id filter: {}", ex.getMessage());
+        }
+    }
+
+    private double falsePositiveRatio() {
+        double fp = falsePositives.count();
+        double nonexistent = fp + rejected.count();
+        return nonexistent == 0 ? 0 : fp / nonexistent;
+    }
+}
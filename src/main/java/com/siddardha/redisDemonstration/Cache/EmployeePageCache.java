@@ -0,0 +1,196 @@
+package com.siddardha.redisDemonstration.Cache;
+
+import com.siddardha.redisDemonstration.DTO.EmployeePageResponse;
+import com.siddardha.redisDemonstration.Exception.RedisUnavailableException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.connection.RedisZSetCommands;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.function.Supplier;
+
+/**
+ * Per-page cache for the keyset-paginated employee listing.
+ * - Each page is cached under employees::page:<afterId>:<size> and covers the id range (afterId, lastId].
+ * - The covered ranges are indexed in a sorted set (score = last id of the page, "infinite" for the tail page),
+ *   so a write to id X only evicts the pages whose range contains X instead of the whole listing.
+ * - A page is indexed as covering every id after its cursor before it is read, and narrowed once it is stored.
+ *   Writes remove index entries before evicting pages, so a page that raced with a write is evicted either by
+ *   the write or by its loader, which finds its entry gone.
+ * - While Redis is unavailable, pages are loaded and returned without being cached, and a write that cannot look
+ *   up the index clears the whole listing instead (once Redis is back, see FailOpenCache).
+ */
+@Component
+public class EmployeePageCache {
+
+    private static final Logger log = LoggerFactory.getLogger(EmployeePageCache.class);
+
+    public static final String CACHE_NAME = "employees";
+    public static final String PAGE_INDEX_KEY = "employees:page-index";
+    private static final String PAGE_PREFIX = "page:";
+    // tail page: every id after the cursor belongs to it, including ids that do not exist yet. Also the score a page
+    // is indexed under while it is being loaded
+    public static final double OPEN_END = Long.MAX_VALUE;
+
+    private final CacheManager cacheManager;
+    private final StringRedisTemplate redisTemplate;
+    private final JitteredTtl cacheTtl;
+
+    public EmployeePageCache(CacheManager cacheManager, StringRedisTemplate redisTemplate, JitteredTtl cacheTtl) {
+        this.cacheManager = cacheManager;
+        this.redisTemplate = redisTemplate;
+        this.cacheTtl = cacheTtl;
+    }
+
+    public EmployeePageResponse get(long afterId, int size, Supplier<EmployeePageResponse> loader) {
+        String key = pageKey(afterId, size);
+        EmployeePageResponse[] loaded = {null};
+        EmployeePageResponse page;
+        try {
+            // loaded through the cache so concurrent misses of a hot page are coalesced
+            page = cache().get(key, indexedLoader(key, loader, loaded));
+        } catch (Cache.ValueRetrievalException ex) {
+            // wrapped once per cache tier the load went through
+            for (Throwable cause = ex.getCause(); cause != null; cause = cause.getCause()) {
+                if (cause instanceof UnindexedPage unindexed) {
+                    return unindexed.page;
+                }
+            }
+            throw ex;
+        }
+        if (loaded[0] != null) {
+            narrowIndex(key, loaded[0]);
+        }
+        return page;
+    }
+
+    /**
+     * For a page answered from its stored entry without {@link #get} (ResponseBodyCache#renderStored): reloads it
+     * ahead of expiry, as a hit through get would.
+     */
+    public void refreshIfDue(long afterId, int size, Supplier<EmployeePageResponse> loader) {
+        if (!(cache() instanceof StampedeProtectedCache cache)) {
+            return;
+        }
+        String key = pageKey(afterId, size);
+        EmployeePageResponse[] loaded = {null};
+        cache.refreshIfDue(key, indexedLoader(key, loader, loaded));
+        if (loaded[0] != null) {
+            narrowIndex(key, loaded[0]);
+        }
+    }
+
+    // loads a page for the cache to store, keeping the page in loaded[0] so the caller can narrow its index entry
+    private Callable<EmployeePageResponse> indexedLoader(String key, Supplier<EmployeePageResponse> loader,
+                                                         EmployeePageResponse[] loaded) {
+        return () -> {
+            try {
+                // before the read, covering every id after the cursor: any write from now on finds the entry
+                redisTemplate.opsForZSet().add(PAGE_INDEX_KEY, key, OPEN_END);
+                // the index must outlive every page it points to
+                redisTemplate.expire(PAGE_INDEX_KEY, cacheTtl.max());
+            } catch (RedisUnavailableException ex) {
+                // a page missing from the index could never be evicted: do not cache it
+                throw new UnindexedPage(loader.get());
+            }
+            loaded[0] = loader.get();
+            return loaded[0];
+        };
+    }
+
+    // runs once the loaded page is stored
+    private void narrowIndex(String key, EmployeePageResponse page) {
+        try {
+            if (redisTemplate.opsForZSet().score(PAGE_INDEX_KEY, key) == null) {
+                // a write removed the entry after the read; it may have evicted before the page was stored
+                cache().evict(key);
+                return;
+            }
+            // only if still there: a write removing it now evicts after the page was stored
+            byte[] index = PAGE_INDEX_KEY.getBytes(StandardCharsets.UTF_8);
+            byte[] member = key.getBytes(StandardCharsets.UTF_8);
+            redisTemplate.execute((RedisCallback<Boolean>) connection -> connection.zSetCommands()
+                    .zAdd(index, indexScore(page), member, RedisZSetCommands.ZAddArgs.empty().ifExists()));
+        } catch (RedisUnavailableException ex) {
+            // an entry left covering every id after the cursor only evicts the page more often than needed
+            log.debug("Could not narrow the index entry of {}: {}", key, ex.getMessage());
+        }
+    }
+
+    /** Evicts every cached page whose id range overlaps [fromId, toId]. */
+    public void evictPagesCovering(long fromId, long toId) {
+        Set<String> candidates;
+        try {
+            candidates = redisTemplate.opsForZSet().rangeByScore(PAGE_INDEX_KEY, fromId, OPEN_END);
+        } catch (RedisUnavailableException ex) {
+            log.warn("Employee page index unavailable, clearing all pages: {}", ex.getMessage());
+            cache().clear();
+            return;
+        }
+        if (candidates == null || candidates.isEmpty()) {
+            return;
+        }
+        List<String> evicted = new ArrayList<>();
+        for (String key : candidates) {
+            if (afterIdOf(key) < toId) {
+                evicted.add(key);
+            }
+        }
+        if (evicted.isEmpty()) {
+            return;
+        }
+        try {
+            // index first: a page being stored right now is evicted below or, if it is stored after this, by
+            // its loader (see narrowIndex)
+            redisTemplate.opsForZSet().remove(PAGE_INDEX_KEY, evicted.toArray());
+        } catch (RedisUnavailableException ex) {
+            // leftover index members only cost a needless eviction later
+            log.debug("Could not remove evicted pages from the index: {}", ex.getMessage());
+        }
+        Cache cache = cache();
+        evicted.forEach(cache::evict);
+        log.debug("Evicted {} employee page(s) covering ids {}..{}", evicted.size(), fromId, toId);
+    }
+
+    private Cache cache() {
+        Cache cache = cacheManager.getCache(CACHE_NAME);
+        if (cache == null) {
+            throw new IllegalStateException("Cache '" + CACHE_NAME + "' is not configured");
+        }
+        return cache;
+    }
+
+    public static String pageKey(long afterId, int size) {
+        return PAGE_PREFIX + afterId + ":" + size;
+    }
+
+    /** Score of a page in the index: the last id it covers. */
+    public static double indexScore(EmployeePageResponse page) {
+        return page.isHasNext() ? page.getNextCursor() : OPEN_END;
+    }
+
+    // carries a page loaded while its index entry could not be written, out of Cache.get(key, loader)
+    private static final class UnindexedPage extends RuntimeException {
+
+        private final transient EmployeePageResponse page;
+
+        UnindexedPage(EmployeePageResponse page) {
+            super(null, null, false, false);
+            this.page = page;
+        }
+    }
+
+    private static long afterIdOf(String key) {
+        int end = key.indexOf(':', PAGE_PREFIX.length());
+        return Long.parseLong(key.substring(PAGE_PREFIX.length(), end));
+    }
+}
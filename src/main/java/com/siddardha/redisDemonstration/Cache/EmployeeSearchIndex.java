@@ -0,0 +1,254 @@
+package com.siddardha.redisDemonstration.Cache;
+
+import com.siddardha.redisDemonstration.Model.Employee;
+import com.siddardha.redisDemonstration.Repository.EmployeeRepository;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Redis secondary index for the employee search: ids scored by salary (all, and one sorted set per role), names
+ * in a lexicographic sorted set for prefix ranges. Maintained and queried by Lua scripts
+ * (scripts/employee_index.lua, scripts/employee_search.lua), so a filter is answered in O(log N + M). A salary
+ * range combined with a name prefix checks the range's names one by one, at most employees.search.max-scan of
+ * them per search; beyond that the search goes to the database.
+ * - Kept in step on create/update/delete/import. A failed update drops the ready marker: searches go to the
+ *   database until the index is rebuilt from it in the background (also when Redis lost the index). If the marker
+ *   cannot be dropped either (Redis down), this node searches the database and drops it once Redis is back (when
+ *   the RedisCircuitBreaker closes, or with the next update or search).
+ * - Matching is exact for the role and case-sensitive for the name prefix, as in the database query.
+ * - The index only selects ids; callers load the employees and re-check them, so an entry left stale by a
+ *   rebuild racing a write can only drop a result, never return a wrong one.
+ */
+@Component
+public class EmployeeSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(EmployeeSearchIndex.class);
+
+    private static final String SALARY_KEY = "employees:idx:salary";
+    private static final String NAME_KEY = "employees:idx:name";
+    private static final String ENTRIES_KEY = "employees:idx:entries";
+    private static final String ROLE_KEY_PREFIX = "employees:idx:role:";
+    private static final String READY_KEY = "employees:idx:ready";
+    private static final String REBUILD_LOCK_KEY = "employees:idx:rebuild";
+    private static final int REBUILD_BATCH = 500;
+    private static final Duration REBUILD_LOCK_TTL = Duration.ofMinutes(5);
+    private static final long REBUILD_RETRY_MILLIS = Duration.ofMinutes(1).toMillis();
+
+    private final StringRedisTemplate redisTemplate;
+    private final EmployeeRepository employeeRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate readOnlyTransaction;
+    private final DefaultRedisScript<Long> indexScript;
+    private final DefaultRedisScript<List> searchScript;
+    private final AtomicLong lastRebuildAttempt = new AtomicLong();
+    // an update was missed and the ready marker could not be dropped yet
+    private volatile boolean invalid;
+    private final int maxScan;
+
+    public EmployeeSearchIndex(StringRedisTemplate redisTemplate,
+                               EmployeeRepository employeeRepository,
+                               EntityManager entityManager,
+                               PlatformTransactionManager transactionManager,
+                               RedisCircuitBreaker circuitBreaker,
+                               @Value("${employees.search.max-scan:2000}") int maxScan) {
+        this.redisTemplate = redisTemplate;
+        this.employeeRepository = employeeRepository;
+        this.entityManager = entityManager;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        circuitBreaker.onClose(this::repair);
+        this.maxScan = maxScan;
+        this.indexScript = new DefaultRedisScript<>();
+        this.indexScript.setLocation(new ClassPathResource("scripts/employee_index.lua"));
+        this.indexScript.setResultType(Long.class);
+        this.searchScript = new DefaultRedisScript<>();
+        this.searchScript.setLocation(new ClassPathResource("scripts/employee_search.lua"));
+        this.searchScript.setResultType(List.class);
+    }
+
+    public void indexed(Employee emp) {
+        indexedAll(List.of(emp));
+    }
+
+    public void indexedAll(Collection<Employee> employees) {
+        List<String> args = new ArrayList<>(1 + 5 * employees.size());
+        args.add(ROLE_KEY_PREFIX);
+        for (Employee emp : employees) {
+            addEntry(args, emp);
+        }
+        update(args);
+    }
+
+    public void removed(long id) {
+        update(List.of(ROLE_KEY_PREFIX, "-", String.valueOf(id), "", "", ""));
+    }
+
+    private static void addEntry(List<String> args, Employee emp) {
+        args.add("+");
+        args.add(String.valueOf(emp.getId()));
+        args.add(emp.getRole() == null ? "" : emp.getRole());
+        args.add(emp.getName() == null ? "" : emp.getName());
+        args.add(emp.getSalary() == null ? "" : String.valueOf(emp.getSalary()));
+    }
+
+    private void update(List<String> args) {
+        if (args.size() < 2) {
+            return;
+        }
+        repair();
+        try {
+            runIndexScript(args);
+        } catch (RuntimeException ex) {
+            // a missed update would keep returning (or hiding) this employee: fall back to the database until rebuilt
+            log.warn("Could not update employee search index ({}), invalidating it", ex.getMessage());
+            invalid = true;
+            repair();
+        }
+    }
+
+    /** Drops the ready marker if an update was missed and it could not be dropped then. */
+    void repair() {
+        if (invalid && invalidate()) {
+            invalid = false;
+        }
+    }
+
+    private void runIndexScript(List<String> args) {
+        redisTemplate.execute(indexScript, List.of(SALARY_KEY, NAME_KEY, ENTRIES_KEY), args.toArray());
+    }
+
+    private boolean invalidate() {
+        try {
+            redisTemplate.delete(READY_KEY);
+            return true;
+        } catch (RuntimeException ex) {
+            log.warn("Could not invalidate employee search index {} yet: {}", READY_KEY, ex.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * @param role       exact role, or null for any
+     * @param namePrefix case-sensitive name prefix, or null for any
+     * @return up to count matching ids after skipping offset matches, ordered by salary (by name when only a name
+     *         prefix is given); empty if the index cannot be used right now, or the filter is too broad for it
+     */
+    public Optional<List<Long>> search(String role, String namePrefix, Double minSalary, Double maxSalary,
+                                       int offset, int count) {
+        boolean bySalary = role != null || minSalary != null || maxSalary != null;
+        String scoreKey = role != null ? ROLE_KEY_PREFIX + role : SALARY_KEY;
+        repair();
+        if (invalid) {
+            return Optional.empty();
+        }
+        List<?> ids;
+        try {
+            ids = redisTemplate.execute(searchScript, List.of(scoreKey, NAME_KEY, ENTRIES_KEY, READY_KEY),
+                    minSalary == null ? "-inf" : String.valueOf(minSalary),
+                    maxSalary == null ? "+inf" : String.valueOf(maxSalary),
+                    namePrefix == null ? "" : namePrefix,
+                    String.valueOf(offset), String.valueOf(count),
+                    bySalary ? "1" : "0", String.valueOf(maxScan));
+        } catch (RuntimeException ex) {
+            log.debug("Employee search index unavailable: {}", ex.getMessage());
+            return Optional.empty();
+        }
+        // the script's nil (index not built) arrives as null or as a list holding null, depending on the driver
+        if (ids == null || ids.contains(null)) {
+            rebuildInBackground();
+            return Optional.empty();
+        }
+        if (ids.size() == 1 && "scan-limit".equals(String.valueOf(ids.get(0)))) {
+            log.debug("Employee search would scan more than {} index entries, using the database", maxScan);
+            return Optional.empty();
+        }
+        return Optional.of(ids.stream().map(id -> Long.valueOf(id.toString())).toList());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        rebuildInBackground();
+    }
+
+    private void rebuildInBackground() {
+        long now = System.currentTimeMillis();
+        long last = lastRebuildAttempt.get();
+        if (now - last < REBUILD_RETRY_MILLIS || !lastRebuildAttempt.compareAndSet(last, now)) {
+            return;
+        }
+        CompletableFuture.runAsync(this::rebuildIfMissing);
+    }
+
+    void rebuildIfMissing() {
+        try {
+            if (Boolean.TRUE.equals(redisTemplate.hasKey(READY_KEY))) {
+                return;
+            }
+            if (!Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(REBUILD_LOCK_KEY, "1", REBUILD_LOCK_TTL))) {
+                return;
+            }
+            try {
+                clear();
+                // entries are written to the live keys: writes meanwhile are indexed too, searches use the database
+                // until the marker is set
+                long count = readOnlyTransaction.execute(status -> {
+                    long loaded = 0;
+                    List<String> args = new ArrayList<>();
+                    try (Stream<Employee> employees = employeeRepository.streamAllOrderById()) {
+                        for (Employee emp : (Iterable<Employee>) employees::iterator) {
+                            if (args.isEmpty()) {
+                                args.add(ROLE_KEY_PREFIX);
+                            }
+                            addEntry(args, emp);
+                            if (++loaded % REBUILD_BATCH == 0) {
+                                runIndexScript(args);
+                                args.clear();
+                                entityManager.clear();
+                            }
+                        }
+                    }
+                    if (!args.isEmpty()) {
+                        runIndexScript(args);
+                    }
+                    return loaded;
+                });
+                redisTemplate.opsForValue().set(READY_KEY, "1");
+                log.info("Employee search index built with {} employees", count);
+            } finally {
+                redisTemplate.delete(REBUILD_LOCK_KEY);
+            }
+        } catch (RuntimeException ex) {
+            log.warn("Could not build employee search index: {}", ex.getMessage());
+        }
+    }
+
+    // entries of rows deleted while the index was unusable would otherwise stay forever
+    private void clear() {
+        List<String> keys = new ArrayList<>(List.of(SALARY_KEY, NAME_KEY, ENTRIES_KEY));
+        try (Cursor<String> roleKeys = redisTemplate.scan(ScanOptions.scanOptions().match(ROLE_KEY_PREFIX + "*").count(1000).build())) {
+            roleKeys.forEachRemaining(keys::add);
+        }
+        redisTemplate.delete(keys);
+    }
+}
@@ -0,0 +1,186 @@
+package com.siddardha.redisDemonstration.Cache;
+
+import com.siddardha.redisDemonstration.Exception.RedisUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+
+import java.util.Collection;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * The Redis tier of a cache, kept usable while Redis is not (see RedisCircuitBreaker): reads are misses, so
+ * callers load from the database, and writes are skipped.
+ * - A skipped put or eviction may leave an outdated entry in Redis. The cache is then marked stale and cleared
+ *   (one generation change, see CacheGenerations) as soon as Redis is back: when the circuit closes, or at the
+ *   latest before this node reads from it again.
+ * - Back-fills (putIfAbsent) that fail are just dropped: they never replace an entry.
+ * Metric: cache.redis.unavailable{cache,operation}.
+ */
+public class FailOpenCache implements Cache, FieldUpdatableCache {
+
+    private static final Logger log = LoggerFactory.getLogger(FailOpenCache.class);
+
+    private final Cache delegate;
+    private final Counter failedReads;
+    private final Counter failedWrites;
+    private final AtomicBoolean stale = new AtomicBoolean();
+    private final AtomicBoolean clearing = new AtomicBoolean();
+
+    FailOpenCache(Cache delegate, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.failedReads = unavailable(meterRegistry, "read");
+        this.failedWrites = unavailable(meterRegistry, "write");
+    }
+
+    private Counter unavailable(MeterRegistry registry, String operation) {
+        return Counter.builder("cache.redis.unavailable")
+                .description("Cache operations that fell back because Redis was unavailable")
+                .tag("cache", delegate.getName())
+                .tag("operation", operation)
+                .register(registry);
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return delegate.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        if (!isCurrent()) {
+            return null;
+        }
+        try {
+            return delegate.get(key);
+        } catch (RedisUnavailableException ex) {
+            failedReads.increment();
+            return null;
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        Object value = wrapper != null ? wrapper.get() : null;
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    // not delegated: the delegate would run the loader between its own Redis calls
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper wrapper = get(key);
+        if (wrapper != null) {
+            return (T) wrapper.get();
+        }
+        T value;
+        try {
+            value = valueLoader.call();
+        } catch (Exception ex) {
+            throw new ValueRetrievalException(key, valueLoader, ex);
+        }
+        if (value != null) {
+            put(key, value);
+        }
+        return value;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        try {
+            delegate.put(key, value);
+        } catch (RedisUnavailableException ex) {
+            skipped("put", ex);
+        }
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        try {
+            return delegate.putIfAbsent(key, value);
+        } catch (RedisUnavailableException ex) {
+            failedWrites.increment();
+            return null;
+        }
+    }
+
+    @Override
+    public void putFields(Object key, Object value, Collection<String> changed) {
+        try {
+            if (delegate instanceof FieldUpdatableCache fields) {
+                fields.putFields(key, value, changed);
+            } else {
+                delegate.put(key, value);
+            }
+        } catch (RedisUnavailableException ex) {
+            skipped("putFields", ex);
+        }
+    }
+
+    @Override
+    public void evict(Object key) {
+        try {
+            delegate.evict(key);
+        } catch (RedisUnavailableException ex) {
+            skipped("evict", ex);
+        }
+    }
+
+    @Override
+    public void clear() {
+        try {
+            delegate.clear();
+        } catch (RedisUnavailableException ex) {
+            skipped("clear", ex);
+        }
+    }
+
+    private void skipped(String operation, RedisUnavailableException ex) {
+        failedWrites.increment();
+        if (stale.compareAndSet(false, true)) {
+            log.warn("Redis unavailable, {} on cache {} skipped; the cache is cleared once Redis is back: {}",
+                    operation, getName(), ex.getMessage());
+        }
+    }
+
+    /** @return false while entries in Redis may be outdated: a write was skipped and the cache not cleared since */
+    boolean isCurrent() {
+        return !(stale.get() || clearing.get()) || clearStale();
+    }
+
+    /** Clears the cache if a write was skipped while Redis was unavailable. @return false if it is still stale */
+    boolean clearStale() {
+        // one caller clears, the others read as misses meanwhile
+        if (!clearing.compareAndSet(false, true)) {
+            return false;
+        }
+        try {
+            if (!stale.get()) {
+                return true;
+            }
+            // reset first: a write skipped while clearing marks the cache stale again
+            stale.set(false);
+            delegate.clear();
+        } catch (RedisUnavailableException ex) {
+            stale.set(true);
+            return false;
+        } finally {
+            clearing.set(false);
+        }
+        log.info("Cache {} cleared after Redis was unavailable", getName());
+        return true;
+    }
+}
@@ -0,0 +1,16 @@
+package com.siddardha.redisDemonstration.Cache;
+
+import java.util.Collection;
+
+/**
+ * A cache that can store an update of some properties of a value without rewriting the whole entry where its
+ * layout allows it (see RedisHashCache); other layouts store the complete value.
+ */
+public interface FieldUpdatableCache {
+
+    /**
+     * @param value   the complete new value
+     * @param changed names of the properties that differ from the cached value
+     */
+    void putFields(Object key, Object value, Collection<String> changed);
+}
@@ -0,0 +1,57 @@
+package com.siddardha.redisDemonstration.Cache;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Maps values of one flat type (scalar properties only, e.g. Employee) to Redis hash fields and back:
+ * one field per non-null property, holding its text form. Properties without a field read back as null.
+ */
+public class HashValueCodec<T> {
+
+    private static final TypeReference<Map<String, Object>> PROPERTIES = new TypeReference<>() {
+    };
+
+    private final ObjectMapper mapper;
+    private final Class<T> type;
+
+    public HashValueCodec(Class<T> type) {
+        this.mapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                .build();
+        this.type = type;
+    }
+
+    public Class<T> type() {
+        return type;
+    }
+
+    public Map<String, String> toFields(Object value) {
+        Map<String, Object> properties = mapper.convertValue(value, PROPERTIES);
+        Map<String, String> fields = new LinkedHashMap<>(properties.size() * 2);
+        properties.forEach((name, property) -> {
+            if (property instanceof Map || property instanceof Collection) {
+                throw new IllegalArgumentException("Property '" + name + "' of " + type.getSimpleName()
+                        + " is not a scalar; the hash cache layout needs flat values");
+            }
+            if (property != null) {
+                fields.put(name, String.valueOf(property));
+            }
+        });
+        return fields;
+    }
+
+    /** @return the value, or null if there are no fields (no entry) */
+    public T fromFields(Map<?, ?> fields) {
+        if (fields == null || fields.isEmpty()) {
+            return null;
+        }
+        return mapper.convertValue(fields, type);
+    }
+}
@@ -0,0 +1,39 @@
+package com.siddardha.redisDemonstration.Cache;
+
+import org.springframework.data.redis.cache.RedisCacheWriter;
+import org.springframework.lang.Nullable;
+
+import java.time.Duration;
+
+/**
+ * Redis entry TTL spread by up to +/- jitter around the base TTL, so entries loaded together (bulk import,
+ * warm-up, a hot listing) do not all expire in the same instant.
+ * The spread is derived from the key, so every node computes the same TTL for the same entry.
+ */
+public class JitteredTtl implements RedisCacheWriter.TtlFunction {
+
+    private static final int SPREAD = 1000;
+
+    private final Duration base;
+    private final double jitter;
+
+    public JitteredTtl(Duration base, double jitter) {
+        this.base = base;
+        this.jitter = jitter;
+    }
+
+    @Override
+    public Duration getTimeToLive(Object key, @Nullable Object value) {
+        return ttlFor(key);
+    }
+
+    public Duration ttlFor(Object key) {
+        int offset = Math.floorMod(String.valueOf(key).hashCode(), 2 * SPREAD + 1) - SPREAD;
+        return Duration.ofMillis((long) (base.toMillis() * (1 + jitter * offset / SPREAD)));
+    }
+
+    /** Longest TTL any entry can get. */
+    public Duration max() {
+        return Duration.ofMillis((long) (base.toMillis() * (1 + jitter)));
+    }
+}
@@ -0,0 +1,77 @@
+package com.siddardha.redisDemonstration.Cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.siddardha.redisDemonstration.Service.CustomUserDetailsService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-process cache of authenticated principals, so the JWT filter does not load the user (and its roles) per request.
+ * - Keyed by username; an entry lives until the token it was loaded for expires, capped by security.principal-cache.ttl.
+ * - The cap bounds how long a role change on another node stays invisible here; local changes call {@link #evict}.
+ */
+@Component
+public class PrincipalCache {
+
+    private final CustomUserDetailsService userDetailsService;
+    private final Cache<String, CachedPrincipal> principals;
+
+    public PrincipalCache(CustomUserDetailsService userDetailsService,
+                          MeterRegistry meterRegistry,
+                          @Value("${security.principal-cache.maximum-size:10000}") long maximumSize,
+                          @Value("${security.principal-cache.ttl:5m}") Duration ttl) {
+        this.userDetailsService = userDetailsService;
+        this.principals = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new TokenBoundExpiry(ttl.toNanos()))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, principals, "principals");
+    }
+
+    /** @param tokenExpiresAt expiry of the token being authenticated, epoch millis */
+    public UserDetails get(String username, long tokenExpiresAt) {
+        CachedPrincipal cached = principals.getIfPresent(username);
+        if (cached != null) {
+            return cached.userDetails();
+        }
+        // loaded outside the cache's compute lock: a JDBC call under a synchronized map bin pins a virtual thread
+        UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+        principals.put(username, new CachedPrincipal(userDetails, tokenExpiresAt));
+        return userDetails;
+    }
+
+    public void evict(String username) {
+        principals.invalidate(username);
+    }
+
+    record CachedPrincipal(UserDetails userDetails, long expiresAt) {
+    }
+
+    private record TokenBoundExpiry(long maxNanos) implements Expiry<String, CachedPrincipal> {
+
+        @Override
+        public long expireAfterCreate(String key, CachedPrincipal value, long currentTime) {
+            long untilTokenExpiry = TimeUnit.MILLISECONDS.toNanos(value.expiresAt() - System.currentTimeMillis());
+            return Math.max(0, Math.min(maxNanos, untilTokenExpiry));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, CachedPrincipal value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, CachedPrincipal value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
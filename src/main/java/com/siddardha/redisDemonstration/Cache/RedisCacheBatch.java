@@ -0,0 +1,90 @@
+package com.siddardha.redisDemonstration.Cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.types.Expiration;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Multi-key access to one cache's Redis entries (see RedisCacheLayout), one round trip per call:
+ * MGET for lookups, a pipeline of SET NX PX for back-filling (pipelined HGETALL and hash writes for caches
+ * laid out as hashes, see RedisHashCache).
+ * - Back-fills never overwrite: an entry put by a concurrent write in the meantime is newer than ours.
+ * - Fails open: a Redis error reads as all misses, a failed back-fill is skipped.
+ * The near cache is not involved; single-key reads still promote these entries into it.
+ */
+public class RedisCacheBatch {
+
+    private static final Logger log = LoggerFactory.getLogger(RedisCacheBatch.class);
+
+    private final RedisCacheLayout layout;
+    private final StringRedisTemplate redisTemplate;
+
+    public RedisCacheBatch(RedisCacheLayout layout, StringRedisTemplate redisTemplate) {
+        this.layout = layout;
+        this.redisTemplate = redisTemplate;
+    }
+
+    /** @return the cached values of the keys that have one */
+    public <K> Map<K, Object> getAll(Collection<K> keys) {
+        Map<K, Object> found = new HashMap<>();
+        if (keys.isEmpty()) {
+            return found;
+        }
+        if (layout.hashCache() != null) {
+            try {
+                return layout.hashCache().getAll(keys);
+            } catch (RuntimeException ex) {
+                log.debug("HGETALL on cache {} failed: {}", layout.name(), ex.getMessage());
+                return found;
+            }
+        }
+        byte[][] rawKeys = keys.stream().map(layout::rawKey).toArray(byte[][]::new);
+        List<byte[]> raw;
+        try {
+            raw = redisTemplate.execute((RedisCallback<List<byte[]>>) connection -> connection.stringCommands().mGet(rawKeys));
+        } catch (RuntimeException ex) {
+            log.debug("MGET on cache {} failed: {}", layout.name(), ex.getMessage());
+            return found;
+        }
+        if (raw == null) {
+            return found;
+        }
+        Iterator<byte[]> values = raw.iterator();
+        for (K key : keys) {
+            Object value = values.hasNext() ? layout.read(values.next()) : null;
+            if (value != null) {
+                found.put(key, value);
+            }
+        }
+        return found;
+    }
+
+    public void putAllIfAbsent(Map<?, ?> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        try {
+            if (layout.hashCache() != null) {
+                layout.hashCache().putAllIfAbsent(entries);
+                return;
+            }
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                RedisStringCommands commands = connection.stringCommands();
+                entries.forEach((key, value) -> commands.set(layout.rawKey(key), layout.write(value),
+                        Expiration.from(layout.ttl(key, value)), RedisStringCommands.SetOption.SET_IF_ABSENT));
+                return null;
+            });
+        } catch (RuntimeException ex) {
+            log.debug("Back-fill of {} entries into cache {} failed: {}", entries.size(), layout.name(), ex.getMessage());
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.siddardha.redisDemonstration.Cache;
+
+import org.springframework.cache.Cache;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+/**
+ * How one cache of the RedisCacheManager lays out its entries in Redis: key prefix, value codec and TTL, taken
+ * from the manager's own configuration. Code that reads or writes those entries without going through the
+ * Spring Cache (batch lookups, the reactive stack) uses this, so it can never drift from what @Cacheable does.
+ */
+public final class RedisCacheLayout {
+
+    private final String name;
+    private final RedisCacheConfiguration configuration;
+    private final RedisSerializationContext.SerializationPair<Object> values;
+    private final RedisCacheWriter.TtlFunction ttl;
+    private final RedisHashCache hashCache;
+
+    private RedisCacheLayout(String name, RedisCacheConfiguration configuration, RedisHashCache hashCache) {
+        this.name = name;
+        this.configuration = configuration;
+        this.hashCache = hashCache;
+        this.values = configuration.getValueSerializationPair();
+        this.ttl = configuration.getTtlFunction();
+    }
+
+    public static RedisCacheLayout of(RedisCacheManager cacheManager, String name) {
+        Cache cache = cacheManager.getCache(name);
+        if (!(cache instanceof RedisCache redisCache)) {
+            throw new IllegalStateException("Cache '" + name + "' is not a Redis cache");
+        }
+        return new RedisCacheLayout(name, redisCache.getCacheConfiguration(),
+                redisCache instanceof RedisHashCache hash ? hash : null);
+    }
+
+    public String name() {
+        return name;
+    }
+
+    /** @return the cache if its entries are hashes (cache.codecs.<name>=hash), null if they are serialized values */
+    public RedisHashCache hashCache() {
+        return hashCache;
+    }
+
+    // RedisCache turns simple keys (numbers, strings) into their string form the same way; the prefix is looked
+    // up per key as it carries the cache's current generation
+    public String key(Object key) {
+        return configuration.getKeyPrefixFor(name) + key;
+    }
+
+    public byte[] rawKey(Object key) {
+        return key(key).getBytes(StandardCharsets.UTF_8);
+    }
+
+    // read/write/values: serialized-value layouts only
+    public RedisSerializationContext.SerializationPair<Object> values() {
+        return values;
+    }
+
+    /** @return the decoded value, or null if there is none (or it cannot be decoded) */
+    public Object read(byte[] raw) {
+        return raw == null ? null : values.read(ByteBuffer.wrap(raw));
+    }
+
+    public byte[] write(Object value) {
+        ByteBuffer buffer = values.write(value);
+        byte[] raw = new byte[buffer.remaining()];
+        buffer.get(raw);
+        return raw;
+    }
+
+    public Duration ttl(Object key, Object value) {
+        return ttl.getTimeToLive(key, value);
+    }
+}
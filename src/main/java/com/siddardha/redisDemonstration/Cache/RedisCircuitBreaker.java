@@ -0,0 +1,257 @@
+package com.siddardha.redisDemonstration.Cache;
+
+import com.siddardha.redisDemonstration.Exception.RedisUnavailableException;
+import io.lettuce.core.RedisBusyException;
+import io.lettuce.core.RedisCommandTimeoutException;
+import io.lettuce.core.RedisConnectionException;
+import io.lettuce.core.RedisLoadingException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.stereotype.Component;
+
+import java.net.ConnectException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Circuit breaker in front of every Redis command sent through the templates and the cache writer
+ * (CircuitBreakingRedisTemplate, CircuitBreakingStringRedisTemplate, CircuitBreakingCacheWriter).
+ * - CLOSED: commands run. redis.circuit-breaker.failure-threshold outage failures in a row (command timeouts,
+ *   connection errors) open the circuit.
+ * - OPEN: commands fail at once with RedisUnavailableException instead of waiting for their timeout, for
+ *   redis.circuit-breaker.open-duration.
+ * - HALF_OPEN: the next redis.circuit-breaker.half-open-probes commands go through as probes, the others are still
+ *   rejected. As many successful probes close the circuit; a failed one opens it again.
+ * Errors Redis answers with (WRONGTYPE, script errors) are passed on and do not count as failures.
+ * Callers degrade on RedisUnavailableException: caches read as misses (FailOpenCache), the rate limiter decides
+ * locally (LocalRateLimiterService).
+ * Metrics: redis.circuit.breaker.state{state}, redis.circuit.breaker.transitions{to},
+ * redis.circuit.breaker.calls{outcome}.
+ */
+@Component
+public class RedisCircuitBreaker {
+
+    private static final Logger log = LoggerFactory.getLogger(RedisCircuitBreaker.class);
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN;
+
+        String tag() {
+            return name().toLowerCase();
+        }
+    }
+
+    private final int failureThreshold;
+    private final long openDurationNanos;
+    private final int halfOpenProbes;
+    private final AtomicReference<State> state = new AtomicReference<>(State.CLOSED);
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private final AtomicInteger probesStarted = new AtomicInteger();
+    private final AtomicInteger probesSucceeded = new AtomicInteger();
+    private volatile long openedAt;
+    private final List<Runnable> closeListeners = new CopyOnWriteArrayList<>();
+
+    private final Counter succeeded;
+    private final Counter failed;
+    private final Counter rejected;
+    private final Counter toOpen;
+    private final Counter toHalfOpen;
+    private final Counter toClosed;
+
+    public RedisCircuitBreaker(MeterRegistry meterRegistry,
+                               @Value("${redis.circuit-breaker.failure-threshold:5}") int failureThreshold,
+                               @Value("${redis.circuit-breaker.open-duration:5s}") Duration openDuration,
+                               @Value("${redis.circuit-breaker.half-open-probes:3}") int halfOpenProbes) {
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.openDurationNanos = openDuration.toNanos();
+        this.halfOpenProbes = Math.max(1, halfOpenProbes);
+
+        for (State each : State.values()) {
+            Gauge.builder("redis.circuit.breaker.state", state, s -> s.get() == each ? 1 : 0)
+                    .description("1 for the current state of the Redis circuit breaker")
+                    .tag("state", each.tag())
+                    .register(meterRegistry);
+        }
+        this.succeeded = calls(meterRegistry, "success");
+        this.failed = calls(meterRegistry, "failure");
+        this.rejected = calls(meterRegistry, "rejected");
+        this.toOpen = transitions(meterRegistry, State.OPEN);
+        this.toHalfOpen = transitions(meterRegistry, State.HALF_OPEN);
+        this.toClosed = transitions(meterRegistry, State.CLOSED);
+    }
+
+    private static Counter calls(MeterRegistry registry, String outcome) {
+        return Counter.builder("redis.circuit.breaker.calls")
+                .description("Redis commands by outcome; rejected ones were not sent")
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+
+    private static Counter transitions(MeterRegistry registry, State to) {
+        return Counter.builder("redis.circuit.breaker.transitions")
+                .description("State changes of the Redis circuit breaker (to=open counts the trips)")
+                .tag("to", to.tag())
+                .register(registry);
+    }
+
+    public State state() {
+        return state.get();
+    }
+
+    /** Runs after every recovery (HALF_OPEN -> CLOSED), on the thread whose probe closed the circuit. */
+    public void onClose(Runnable listener) {
+        closeListeners.add(listener);
+    }
+
+    /**
+     * Runs one Redis call under the breaker.
+     * @throws RedisUnavailableException if the circuit is open, or the call failed because Redis is unavailable
+     */
+    public <T> T call(Supplier<T> command) {
+        boolean probe = acquirePermission();
+        T result;
+        try {
+            result = command.get();
+        } catch (RuntimeException ex) {
+            throw record(ex, probe);
+        }
+        onSuccess(probe);
+        return result;
+    }
+
+    /** {@link #call} for commands that complete asynchronously; the outcome is recorded when they do. */
+    public <T> CompletableFuture<T> callAsync(Supplier<CompletableFuture<T>> command) {
+        boolean probe = acquirePermission();
+        CompletableFuture<T> future;
+        try {
+            future = command.get();
+        } catch (RuntimeException ex) {
+            throw record(ex, probe);
+        }
+        return future.whenComplete((value, ex) -> {
+            if (ex == null) {
+                onSuccess(probe);
+            } else {
+                record(ex, probe);
+            }
+        });
+    }
+
+    /** @return true if the call is a half-open probe */
+    private boolean acquirePermission() {
+        State current = state.get();
+        if (current == State.CLOSED) {
+            return false;
+        }
+        if (current == State.OPEN) {
+            if (System.nanoTime() - openedAt < openDurationNanos) {
+                rejected.increment();
+                throw new RedisUnavailableException("Redis circuit breaker is open");
+            }
+            transition(State.OPEN, State.HALF_OPEN);
+        }
+        if (probesStarted.incrementAndGet() <= halfOpenProbes) {
+            return true;
+        }
+        rejected.increment();
+        throw new RedisUnavailableException("Redis circuit breaker is half-open, waiting for its probes");
+    }
+
+    private void onSuccess(boolean probe) {
+        succeeded.increment();
+        if (probe) {
+            if (probesSucceeded.incrementAndGet() >= halfOpenProbes) {
+                transition(State.HALF_OPEN, State.CLOSED);
+            }
+        } else if (consecutiveFailures.get() != 0) {
+            // only written when it changes: this runs for every command
+            consecutiveFailures.set(0);
+        }
+    }
+
+    private RuntimeException record(Throwable ex, boolean probe) {
+        if (!isOutage(ex)) {
+            // Redis answered: it is up, whatever the error says
+            onSuccess(probe);
+            return ex instanceof RuntimeException runtime ? runtime : new IllegalStateException(ex);
+        }
+        failed.increment();
+        if (probe || state.get() == State.HALF_OPEN) {
+            transition(State.HALF_OPEN, State.OPEN);
+        } else if (consecutiveFailures.incrementAndGet() >= failureThreshold) {
+            transition(State.CLOSED, State.OPEN);
+        }
+        return ex instanceof RedisUnavailableException unavailable
+                ? unavailable
+                : new RedisUnavailableException("Redis command failed: " + ex.getMessage(), ex);
+    }
+
+    private void transition(State from, State to) {
+        if (state.get() != from) {
+            return;
+        }
+        // set before the state, so no caller sees the new state with the previous opening time or probe counts
+        if (to == State.OPEN) {
+            openedAt = System.nanoTime();
+        }
+        if (to != State.CLOSED) {
+            probesStarted.set(0);
+            probesSucceeded.set(0);
+        }
+        if (!state.compareAndSet(from, to)) {
+            return;
+        }
+        switch (to) {
+            case OPEN -> {
+                toOpen.increment();
+                log.warn("Redis circuit breaker opened ({} -> OPEN): Redis calls fail fast for the next {} ms",
+                        from, openDurationNanos / 1_000_000);
+            }
+            case HALF_OPEN -> {
+                toHalfOpen.increment();
+                log.info("Redis circuit breaker half-open: probing Redis with {} call(s)", halfOpenProbes);
+            }
+            case CLOSED -> {
+                consecutiveFailures.set(0);
+                toClosed.increment();
+                log.info("Redis circuit breaker closed: Redis is back");
+                for (Runnable listener : closeListeners) {
+                    try {
+                        listener.run();
+                    } catch (RuntimeException ex) {
+                        log.warn("Redis recovery action failed: {}", ex.getMessage());
+                    }
+                }
+            }
+        }
+    }
+
+    /** Whether the failure means Redis could not serve the command (as opposed to an error reply). */
+    public static boolean isOutage(Throwable ex) {
+        for (Throwable cause = ex; cause != null; cause = cause.getCause() == cause ? null : cause.getCause()) {
+            if (cause instanceof DataAccessResourceFailureException
+                    || cause instanceof QueryTimeoutException
+                    || cause instanceof RedisConnectionException
+                    || cause instanceof RedisCommandTimeoutException
+                    || cause instanceof RedisLoadingException
+                    || cause instanceof RedisBusyException
+                    || cause instanceof TimeoutException
+                    || cause instanceof ConnectException) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,230 @@
+package com.siddardha.redisDemonstration.Cache;
+
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * RedisCache that stores each entry as a Redis hash, one field per property (see HashValueCodec), instead of one
+ * serialized document. Selected per cache with cache.codecs.<name>=hash; keys, TTLs, eviction and clearing are
+ * the same as for the other codecs.
+ * - Every write is one call of scripts/cache_hash_write.lua: fields and TTL are set together, readers never see
+ *   a half-written entry.
+ * - {@link #putFields} only rewrites the properties that changed (a PATCH of the salary sets one field).
+ * - {@link #getFields} reads a subset of the properties with HMGET, for projections.
+ * - A key still holding a value of the old layout reads as a miss and is replaced by the next write.
+ */
+public class RedisHashCache extends RedisCache implements FieldUpdatableCache {
+
+    public enum WriteMode {
+        PUT, ABSENT, FIELDS;
+
+        String argument() {
+            return name().toLowerCase();
+        }
+    }
+
+    private final HashValueCodec<?> codec;
+    private final StringRedisTemplate redisTemplate;
+    private final RedisCacheWriter.TtlFunction ttl;
+    private final DefaultRedisScript<Long> writeScript;
+
+    RedisHashCache(String name, RedisCacheWriter cacheWriter, RedisCacheConfiguration configuration,
+                   HashValueCodec<?> codec, StringRedisTemplate redisTemplate) {
+        super(name, cacheWriter, configuration);
+        this.codec = codec;
+        this.redisTemplate = redisTemplate;
+        this.ttl = configuration.getTtlFunction();
+        this.writeScript = new DefaultRedisScript<>();
+        this.writeScript.setLocation(new ClassPathResource("scripts/cache_hash_write.lua"));
+        this.writeScript.setResultType(Long.class);
+    }
+
+    public HashValueCodec<?> codec() {
+        return codec;
+    }
+
+    public String key(Object key) {
+        return createCacheKey(key);
+    }
+
+    @Override
+    protected Object lookup(Object key) {
+        try {
+            return codec.fromFields(redisTemplate.opsForHash().entries(key(key)));
+        } catch (RuntimeException ex) {
+            if (isWrongType(ex)) {
+                return null;
+            }
+            throw ex;
+        }
+    }
+
+    private static boolean isWrongType(RuntimeException ex) {
+        String message = NestedExceptionUtils.getMostSpecificCause(ex).getMessage();
+        return message != null && message.startsWith("WRONGTYPE");
+    }
+
+    /**
+     * @param names properties to read
+     * @return a value with only these properties set, or null if none of them is (or there is no entry)
+     */
+    public Object getFields(Object key, Collection<String> names) {
+        List<Object> fields = new ArrayList<>(names);
+        List<Object> values;
+        try {
+            values = redisTemplate.opsForHash().multiGet(key(key), fields);
+        } catch (RuntimeException ex) {
+            if (isWrongType(ex)) {
+                return null;
+            }
+            throw ex;
+        }
+        Map<Object, Object> found = new HashMap<>();
+        for (int i = 0; i < fields.size() && i < values.size(); i++) {
+            if (values.get(i) != null) {
+                found.put(fields.get(i), values.get(i));
+            }
+        }
+        return codec.fromFields(found);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper hit = get(key);
+        if (hit != null) {
+            return (T) hit.get();
+        }
+        T value = loadCacheValue(key, valueLoader);
+        if (value != null) {
+            put(key, value);
+        }
+        return value;
+    }
+
+    @Override
+    public CompletableFuture<ValueWrapper> retrieve(Object key) {
+        return CompletableFuture.completedFuture(get(key));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> CompletableFuture<T> retrieve(Object key, Supplier<CompletableFuture<T>> valueLoader) {
+        ValueWrapper hit = get(key);
+        if (hit != null) {
+            return CompletableFuture.completedFuture((T) hit.get());
+        }
+        return valueLoader.get().thenApply(value -> {
+            if (value != null) {
+                put(key, value);
+            }
+            return value;
+        });
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        write(WriteMode.PUT, key, value, Set.of());
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        return write(WriteMode.ABSENT, key, value, Set.of()) ? null : get(key);
+    }
+
+    @Override
+    public void putFields(Object key, Object value, Collection<String> changed) {
+        write(WriteMode.FIELDS, key, value, changed);
+    }
+
+    private boolean write(WriteMode mode, Object key, Object value, Collection<String> changed) {
+        Long written = redisTemplate.execute(writeScript, List.of(key(key)), writeArgs(mode, key, value, changed).toArray());
+        return written != null && written == 1;
+    }
+
+    public RedisScript<Long> writeScript() {
+        return writeScript;
+    }
+
+    /** Arguments of scripts/cache_hash_write.lua for one entry; changed properties first for {@link WriteMode#FIELDS}. */
+    public List<String> writeArgs(WriteMode mode, Object key, Object value, Collection<String> changed) {
+        Map<String, String> fields = codec.toFields(value);
+        List<String> args = new ArrayList<>(3 + 2 * fields.size());
+        args.add(mode.argument());
+        args.add(String.valueOf(ttl.getTimeToLive(key, value).toMillis()));
+        args.add("0");
+        int leading = 0;
+        for (String name : changed) {
+            String field = fields.get(name);
+            if (field != null) {
+                args.add(name);
+                args.add(field);
+                leading++;
+            }
+        }
+        for (Map.Entry<String, String> field : fields.entrySet()) {
+            if (!changed.contains(field.getKey())) {
+                args.add(field.getKey());
+                args.add(field.getValue());
+            }
+        }
+        args.set(2, String.valueOf(leading));
+        return args;
+    }
+
+    /** Pipelined HGETALL, one round trip; fails as a whole if any key holds a value of the old layout. */
+    <K> Map<K, Object> getAll(Collection<K> keys) {
+        List<Object> replies = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (K key : keys) {
+                connection.hashCommands().hGetAll(key(key).getBytes(StandardCharsets.UTF_8));
+            }
+            return null;
+        });
+        Map<K, Object> found = new HashMap<>();
+        Iterator<Object> values = replies.iterator();
+        for (K key : keys) {
+            Object value = values.hasNext() && values.next() instanceof Map<?, ?> fields ? codec.fromFields(fields) : null;
+            if (value != null) {
+                found.put(key, value);
+            }
+        }
+        return found;
+    }
+
+    /** Pipelined {@link WriteMode#ABSENT} writes, one round trip. */
+    void putAllIfAbsent(Map<?, ?> entries) {
+        byte[] script = writeScript.getScriptAsString().getBytes(StandardCharsets.UTF_8);
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            entries.forEach((key, value) -> {
+                List<String> args = writeArgs(WriteMode.ABSENT, key, value, Set.of());
+                byte[][] keyAndArgs = new byte[args.size() + 1][];
+                keyAndArgs[0] = key(key).getBytes(StandardCharsets.UTF_8);
+                for (int i = 0; i < args.size(); i++) {
+                    keyAndArgs[i + 1] = args.get(i).getBytes(StandardCharsets.UTF_8);
+                }
+                connection.scriptingCommands().eval(script, ReturnType.INTEGER, 1, keyAndArgs);
+            });
+            return null;
+        });
+    }
+}
@@ -0,0 +1,37 @@
+package com.siddardha.redisDemonstration.Cache;
+
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.util.Map;
+
+/**
+ * RedisCacheManager whose caches listed with a HashValueCodec are laid out as hashes (RedisHashCache);
+ * every other cache is a plain RedisCache.
+ */
+public class RedisHashCacheManager extends RedisCacheManager {
+
+    private final Map<String, HashValueCodec<?>> hashCodecs;
+    private final StringRedisTemplate redisTemplate;
+
+    public RedisHashCacheManager(RedisCacheWriter cacheWriter, RedisCacheConfiguration defaultConfiguration,
+                                 Map<String, RedisCacheConfiguration> cacheConfigurations,
+                                 Map<String, HashValueCodec<?>> hashCodecs, StringRedisTemplate redisTemplate) {
+        super(cacheWriter, defaultConfiguration, cacheConfigurations);
+        this.hashCodecs = hashCodecs;
+        this.redisTemplate = redisTemplate;
+    }
+
+    @Override
+    protected RedisCache createRedisCache(String name, RedisCacheConfiguration cacheConfiguration) {
+        HashValueCodec<?> codec = hashCodecs.get(name);
+        if (codec == null) {
+            return super.createRedisCache(name, cacheConfiguration);
+        }
+        RedisCacheConfiguration configuration = cacheConfiguration != null ? cacheConfiguration : getDefaultCacheConfiguration();
+        return new RedisHashCache(name, getCacheWriter(), configuration, codec, redisTemplate);
+    }
+}
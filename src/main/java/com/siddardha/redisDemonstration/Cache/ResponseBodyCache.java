@@ -0,0 +1,115 @@
+package com.siddardha.redisDemonstration.Cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.util.Arrays;
+
+/**
+ * Rendered HTTP bodies of cached values, per node: the JSON bytes, a strong ETag (MD5 of the bytes) and the
+ * content type, so a repeated read is written out as is instead of being serialized again.
+ * - {@link #render(Object)}: bodies of values handed out by a near cache, keyed by the identity of the cached
+ *   instance. A changed entry is a new instance, so a body can never outlive the value it was rendered from.
+ * - {@link #renderStored}: bodies of entries of a Redis-only cache, kept with the stored bytes they were
+ *   rendered from. A hit reads those bytes (one GET) and compares them, nothing is decoded.
+ * Both are bounded by cache.response-bodies.maximum-size each.
+ * Metrics: cache.gets{cache="response.body.near"|"response.body.stored"}.
+ */
+@Component
+public class ResponseBodyCache {
+
+    private static final Logger log = LoggerFactory.getLogger(ResponseBodyCache.class);
+
+    public record Body(byte[] bytes, String etag, MediaType contentType) {
+    }
+
+    private record StoredBody(byte[] stored, Body body) {
+    }
+
+    private final ObjectMapper objectMapper;
+    private final StringRedisTemplate redisTemplate;
+    private final Cache<Object, Body> byValue;
+    private final Cache<String, StoredBody> byStoredKey;
+
+    public ResponseBodyCache(ObjectMapper objectMapper,
+                             StringRedisTemplate redisTemplate,
+                             MeterRegistry meterRegistry,
+                             @Value("${cache.response-bodies.maximum-size:32MB}") DataSize maximumSize) {
+        this.objectMapper = objectMapper;
+        this.redisTemplate = redisTemplate;
+        // weak keys compare by identity, and drop the body once the near cache lets go of the instance
+        this.byValue = Caffeine.newBuilder()
+                .weakKeys()
+                .maximumWeight(maximumSize.toBytes())
+                .weigher((Object value, Body body) -> body.bytes().length)
+                .recordStats()
+                .build();
+        this.byStoredKey = Caffeine.newBuilder()
+                .maximumWeight(maximumSize.toBytes())
+                .weigher((String key, StoredBody entry) -> entry.stored().length + entry.body().bytes().length)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, byValue, "response.body.near");
+        CaffeineCacheMetrics.monitor(meterRegistry, byStoredKey, "response.body.stored");
+    }
+
+    /** Body of a value as returned by a near cache; rendered once per cached instance. */
+    public Body render(Object value) {
+        return byValue.get(value, this::serialize);
+    }
+
+    /**
+     * Body of the entry stored under key in a cache laid out as serialized values.
+     * @return null if there is no entry (or Redis cannot be read); the caller loads through the cache instead
+     */
+    public Body renderStored(RedisCacheLayout layout, Object key) {
+        if (layout.hashCache() != null) {
+            return null;
+        }
+        String redisKey = layout.key(key);
+        byte[] stored;
+        try {
+            byte[] rawKey = layout.rawKey(key);
+            stored = redisTemplate.execute((RedisCallback<byte[]>) connection -> connection.stringCommands().get(rawKey));
+        } catch (RuntimeException ex) {
+            log.debug("GET of {} failed: {}", redisKey, ex.getMessage());
+            return null;
+        }
+        if (stored == null) {
+            return null;
+        }
+        StoredBody known = byStoredKey.getIfPresent(redisKey);
+        if (known != null && Arrays.equals(known.stored(), stored)) {
+            return known.body();
+        }
+        Object value = layout.read(stored);
+        if (value == null) {
+            return null;
+        }
+        Body body = serialize(value);
+        byStoredKey.put(redisKey, new StoredBody(stored, body));
+        return body;
+    }
+
+    private Body serialize(Object value) {
+        try {
+            byte[] bytes = objectMapper.writeValueAsBytes(value);
+            return new Body(bytes, "\"" + DigestUtils.md5DigestAsHex(bytes) + "\"", MediaType.APPLICATION_JSON);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Could not serialize " + value.getClass().getSimpleName(), ex);
+        }
+    }
+}
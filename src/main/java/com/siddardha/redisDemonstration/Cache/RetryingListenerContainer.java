@@ -0,0 +1,34 @@
+package com.siddardha.redisDemonstration.Cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The plain container fails application startup when Redis is unreachable.
+ * Caching is optional for this service, so keep retrying the subscription in the background instead.
+ */
+public class RetryingListenerContainer extends RedisMessageListenerContainer {
+
+    private static final Logger log = LoggerFactory.getLogger(RetryingListenerContainer.class);
+
+    private static final long RETRY_SECONDS = 5;
+
+    @Override
+    public void start() {
+        try {
+            super.start();
+        } catch (RuntimeException ex) {
+            log.warn("Redis subscription failed ({}), retrying in {}s", ex.getMessage(), RETRY_SECONDS);
+            stop();
+            CompletableFuture.delayedExecutor(RETRY_SECONDS, TimeUnit.SECONDS).execute(() -> {
+                if (!isRunning()) {
+                    start();
+                }
+            });
+        }
+    }
+}
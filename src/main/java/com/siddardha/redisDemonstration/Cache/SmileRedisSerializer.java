@@ -0,0 +1,88 @@
+package com.siddardha.redisDemonstration.Cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4SafeDecompressor;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Binary cache codec for values of one known type: Smile (binary JSON) without embedded class names,
+ * LZ4-compressed when the encoded value is larger than the threshold.
+ * - Layout: one format byte, then the Smile document, or its original length (4 bytes) + the LZ4 block.
+ * - Values in any other layout (e.g. JSON written before a cache switched codec) decode to null, i.e. a cache miss.
+ */
+public class SmileRedisSerializer<T> implements RedisSerializer<T> {
+
+    private static final byte PLAIN = 1;
+    private static final byte LZ4 = 2;
+
+    // the safe (pure Java, bounds-checked) codec: cache values come from Redis, not from this heap
+    private static final LZ4Factory LZ4_FACTORY = LZ4Factory.safeInstance();
+
+    private final ObjectMapper mapper;
+    private final Class<T> type;
+    private final int compressionThreshold;
+    private final LZ4Compressor compressor = LZ4_FACTORY.fastCompressor();
+    private final LZ4SafeDecompressor decompressor = LZ4_FACTORY.safeDecompressor();
+
+    /** @param compressionThreshold encoded size (bytes) above which values are compressed, negative to never compress */
+    public SmileRedisSerializer(Class<T> type, int compressionThreshold) {
+        this.mapper = Jackson2ObjectMapperBuilder.json().factory(new SmileFactory()).build();
+        this.type = type;
+        this.compressionThreshold = compressionThreshold;
+    }
+
+    @Override
+    public byte[] serialize(T value) throws SerializationException {
+        if (value == null) {
+            return new byte[0];
+        }
+        byte[] smile;
+        try {
+            smile = mapper.writeValueAsBytes(value);
+        } catch (IOException ex) {
+            throw new SerializationException("Could not write " + type.getSimpleName() + " as Smile", ex);
+        }
+        if (compressionThreshold < 0 || smile.length <= compressionThreshold) {
+            return ByteBuffer.allocate(1 + smile.length).put(PLAIN).put(smile).array();
+        }
+        byte[] out = new byte[5 + compressor.maxCompressedLength(smile.length)];
+        ByteBuffer.wrap(out).put(LZ4).putInt(smile.length);
+        int compressed = compressor.compress(smile, 0, smile.length, out, 5);
+        return Arrays.copyOf(out, 5 + compressed);
+    }
+
+    @Override
+    public T deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        try {
+            return switch (bytes[0]) {
+                case PLAIN -> mapper.readValue(bytes, 1, bytes.length - 1, type);
+                case LZ4 -> {
+                    int length = ByteBuffer.wrap(bytes, 1, 4).getInt();
+                    byte[] smile = new byte[length];
+                    decompressor.decompress(bytes, 5, bytes.length - 5, smile, 0, length);
+                    yield mapper.readValue(smile, type);
+                }
+                default -> null;
+            };
+        } catch (IOException | RuntimeException ex) {
+            throw new SerializationException("Could not read cached " + type.getSimpleName(), ex);
+        }
+    }
+
+    @Override
+    public Class<?> getTargetType() {
+        return type;
+    }
+}
@@ -0,0 +1,343 @@
+package com.siddardha.redisDemonstration.Cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.siddardha.redisDemonstration.Config.CachingProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.util.Collection;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Read-through loading with stampede protection, in front of any cache (two-tier or Redis only).
+ * - Single flight per node: concurrent misses for one key wait for the first caller's load, at most
+ *   cache.stampede.lease-timeout, then load themselves.
+ * - Single flight across nodes: the loading node holds a short Redis lease (SET NX PX lock:<cache>::<key>);
+ *   other nodes poll the cache until the value shows up, taking the lease over if it is released without a value,
+ *   and load without it only after cache.stampede.lease-timeout.
+ * - Refresh-ahead (XFetch): the node that loaded an entry reloads it slightly before it expires, with a
+ *   probability that grows as expiry approaches and with how long the load took. One caller pays the reload,
+ *   everyone else keeps getting the cached value.
+ * Only {@link #get(Object, Callable)} is protected; use {@code @Cacheable(sync = true)} to route through it. A hit
+ * read around it (from the stored entry) refreshes ahead through {@link #refreshIfDue}.
+ */
+public class StampedeProtectedCache implements Cache, FieldUpdatableCache {
+
+    private static final Logger log = LoggerFactory.getLogger(StampedeProtectedCache.class);
+
+    private static final String LOCK_PREFIX = "lock:";
+    private static final long POLL_MILLIS = 25;
+
+    private final Cache delegate;
+    private final StringRedisTemplate redisTemplate;
+    private final JitteredTtl ttl;
+    private final long leaseTimeoutMillis;
+    private final double refreshBeta;
+    private final String leaseOwner;
+    private final ConcurrentMap<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    // entries loaded by this node: when they expire and how long the load took
+    private final com.github.benmanes.caffeine.cache.Cache<String, LoadInfo> loads;
+
+    private final Counter coalesced;
+    private final Counter leaseAcquired;
+    private final Counter leaseWaited;
+    private final Counter leaseTimedOut;
+    private final Counter refreshedAhead;
+
+    StampedeProtectedCache(Cache delegate, StringRedisTemplate redisTemplate, JitteredTtl ttl,
+                           CachingProperties.Stampede settings, String leaseOwner, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.redisTemplate = redisTemplate;
+        this.ttl = ttl;
+        this.leaseTimeoutMillis = settings.getLeaseTimeout().toMillis();
+        this.refreshBeta = settings.getRefreshBeta();
+        this.leaseOwner = leaseOwner;
+        this.loads = Caffeine.newBuilder()
+                .maximumSize(settings.getMaxTrackedLoads())
+                .expireAfter(new UntilEntryExpiry())
+                .build();
+
+        String name = delegate.getName();
+        this.coalesced = Counter.builder("cache.load.coalesced")
+                .description("Callers that waited for a load already running on this node")
+                .tag("cache", name)
+                .register(meterRegistry);
+        this.leaseAcquired = lease(meterRegistry, name, "acquired");
+        this.leaseWaited = lease(meterRegistry, name, "waited");
+        this.leaseTimedOut = lease(meterRegistry, name, "timeout");
+        this.refreshedAhead = Counter.builder("cache.refresh.ahead")
+                .description("Entries reloaded before they expired")
+                .tag("cache", name)
+                .register(meterRegistry);
+    }
+
+    private static Counter lease(MeterRegistry registry, String cache, String result) {
+        return Counter.builder("cache.load.lease")
+                .description("Distributed load lease outcomes on a cache miss")
+                .tag("cache", cache)
+                .tag("result", result)
+                .register(registry);
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return delegate.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        return delegate.get(key);
+    }
+
+    @Override
+    public <T> T get(Object key, Class<T> type) {
+        return delegate.get(key, type);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper hit = delegate.get(key);
+        if (hit != null) {
+            refreshAheadIfDue(key, valueLoader);
+            return (T) hit.get();
+        }
+        String id = String.valueOf(key);
+        CompletableFuture<Object> load = new CompletableFuture<>();
+        CompletableFuture<Object> running = inFlight.putIfAbsent(id, load);
+        if (running != null) {
+            coalesced.increment();
+            return (T) await(key, running, valueLoader);
+        }
+        try {
+            Object value = loadUnderLease(key, id, valueLoader);
+            load.complete(value);
+            return (T) value;
+        } catch (RuntimeException ex) {
+            load.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            inFlight.remove(id, load);
+        }
+    }
+
+    private Object loadUnderLease(Object key, String id, Callable<?> valueLoader) {
+        String lockKey = LOCK_PREFIX + getName() + "::" + id;
+        long deadline = System.currentTimeMillis() + leaseTimeoutMillis;
+        Boolean acquired = tryLease(lockKey);
+        // another node is loading: wait for its value, or take over the lease if it gives up (or dies)
+        while (Boolean.FALSE.equals(acquired)) {
+            if (System.currentTimeMillis() >= deadline || !sleep()) {
+                leaseTimedOut.increment();
+                break;
+            }
+            ValueWrapper loadedElsewhere = delegate.get(key);
+            if (loadedElsewhere != null) {
+                leaseWaited.increment();
+                return loadedElsewhere.get();
+            }
+            acquired = tryLease(lockKey);
+        }
+        if (Boolean.TRUE.equals(acquired)) {
+            leaseAcquired.increment();
+        }
+        try {
+            return load(key, id, valueLoader);
+        } finally {
+            if (Boolean.TRUE.equals(acquired)) {
+                release(lockKey);
+            }
+        }
+    }
+
+    /** @return true/false whether the lease was taken, null if Redis could not be asked */
+    private Boolean tryLease(String lockKey) {
+        try {
+            return redisTemplate.opsForValue().setIfAbsent(lockKey, leaseOwner, leaseTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (RuntimeException ex) {
+            // no Redis, no coordination: load like a cache without protection would
+            return null;
+        }
+    }
+
+    private Object load(Object key, String id, Callable<?> valueLoader) {
+        long[] loadNanos = {-1};
+        Object value = delegate.get(key, () -> {
+            long start = System.nanoTime();
+            try {
+                return valueLoader.call();
+            } finally {
+                loadNanos[0] = System.nanoTime() - start;
+            }
+        });
+        if (value != null && loadNanos[0] >= 0) {
+            track(key, id, loadNanos[0]);
+        }
+        return value;
+    }
+
+    private static boolean sleep() {
+        try {
+            Thread.sleep(POLL_MILLIS);
+            return true;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void release(String lockKey) {
+        try {
+            // a lease that already ran out may belong to another node by now; deleting it only costs one extra load
+            redisTemplate.delete(lockKey);
+        } catch (RuntimeException ex) {
+            log.debug("Could not release cache lease {}: {}", lockKey, ex.getMessage());
+        }
+    }
+
+    /** For a hit read without {@link #get(Object, Callable)}: reloads the entry ahead of expiry as that hit would. */
+    public void refreshIfDue(Object key, Callable<?> valueLoader) {
+        refreshAheadIfDue(key, valueLoader);
+    }
+
+    private void refreshAheadIfDue(Object key, Callable<?> valueLoader) {
+        if (refreshBeta <= 0) {
+            return;
+        }
+        String id = String.valueOf(key);
+        LoadInfo info = loads.getIfPresent(id);
+        if (info == null) {
+            return;
+        }
+        // XFetch: refresh when now - delta * beta * ln(rand) >= expiry, rand in (0, 1]
+        double head = -info.loadMillis() * refreshBeta * Math.log(1 - ThreadLocalRandom.current().nextDouble());
+        if (System.currentTimeMillis() + head < info.expiresAt()) {
+            return;
+        }
+        CompletableFuture<Object> refresh = new CompletableFuture<>();
+        if (inFlight.putIfAbsent(id, refresh) != null) {
+            return;
+        }
+        loads.invalidate(id);
+        refreshedAhead.increment();
+        try {
+            long start = System.nanoTime();
+            Object value = valueLoader.call();
+            if (value != null) {
+                delegate.put(key, value);
+                track(key, id, System.nanoTime() - start);
+            }
+            refresh.complete(value);
+        } catch (Exception ex) {
+            // the cached value is still valid until it expires; the next miss loads normally
+            log.debug("Refresh-ahead of {}::{} failed: {}", getName(), id, ex.toString());
+            refresh.completeExceptionally(new ValueRetrievalException(key, valueLoader, ex));
+        } finally {
+            inFlight.remove(id, refresh);
+        }
+    }
+
+    private void track(Object key, String id, long loadNanos) {
+        long expiresAt = System.currentTimeMillis() + ttl.ttlFor(key).toMillis();
+        loads.put(id, new LoadInfo(expiresAt, Math.max(1, TimeUnit.NANOSECONDS.toMillis(loadNanos))));
+    }
+
+    private Object await(Object key, CompletableFuture<Object> load, Callable<?> valueLoader) {
+        try {
+            return load.get(leaseTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new ValueRetrievalException(key, valueLoader, ex.getCause());
+        } catch (TimeoutException ex) {
+            // the first caller's load hangs (or waits on another node): do not queue every caller behind it
+            leaseTimedOut.increment();
+            log.debug("Load of {}::{} still running after {} ms, loading directly", getName(), key, leaseTimeoutMillis);
+            return loadDirectly(key, valueLoader);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new ValueRetrievalException(key, valueLoader, ex);
+        }
+    }
+
+    private Object loadDirectly(Object key, Callable<?> valueLoader) {
+        Object value;
+        try {
+            value = valueLoader.call();
+        } catch (Exception ex) {
+            throw new ValueRetrievalException(key, valueLoader, ex);
+        }
+        if (value != null) {
+            delegate.put(key, value);
+        }
+        return value;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        delegate.put(key, value);
+        // the entry's TTL restarted without a measured load: nothing to base a refresh-ahead on
+        loads.invalidate(String.valueOf(key));
+    }
+
+    @Override
+    public void putFields(Object key, Object value, Collection<String> changed) {
+        if (delegate instanceof FieldUpdatableCache fields) {
+            fields.putFields(key, value, changed);
+        } else {
+            delegate.put(key, value);
+        }
+        loads.invalidate(String.valueOf(key));
+    }
+
+    @Override
+    public void evict(Object key) {
+        delegate.evict(key);
+        loads.invalidate(String.valueOf(key));
+    }
+
+    @Override
+    public void clear() {
+        delegate.clear();
+        loads.invalidateAll();
+    }
+
+    private record LoadInfo(long expiresAt, long loadMillis) {
+    }
+
+    private static final class UntilEntryExpiry implements Expiry<String, LoadInfo> {
+
+        @Override
+        public long expireAfterCreate(String key, LoadInfo info, long currentTime) {
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, info.expiresAt() - System.currentTimeMillis()));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, LoadInfo info, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, info, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, LoadInfo info, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
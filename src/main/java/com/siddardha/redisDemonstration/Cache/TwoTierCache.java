@@ -0,0 +1,203 @@
+package com.siddardha.redisDemonstration.Cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.concurrent.Callable;
+
+/**
+ * Near cache: a bounded in-heap L1 (Caffeine) in front of the Redis L2.
+ * - Reads check L1 first, then L2; an L2 hit is copied into L1.
+ * - Writes and evictions go to both tiers and are broadcast so that other nodes drop their L1 copy.
+ */
+public class TwoTierCache implements Cache, FieldUpdatableCache {
+
+    private final String name;
+    private final com.github.benmanes.caffeine.cache.Cache<String, Object> local;
+    private final Cache remote;
+    private final TwoTierCacheManager manager;
+
+    private final Counter l1Hits;
+    private final Counter l1Misses;
+    private final Counter l2Hits;
+    private final Counter l2Misses;
+    private final Counter l1SizeEvictions;
+    private final Counter l1ExpiredEvictions;
+    private final Counter l1Invalidations;
+    private final Counter l2Invalidations;
+
+    TwoTierCache(String name, Cache remote, TwoTierCacheManager manager,
+                 long maximumSize, Duration ttl, MeterRegistry meterRegistry) {
+        this.name = name;
+        this.remote = remote;
+        this.manager = manager;
+
+        this.l1Hits = gets(meterRegistry, "l1", "hit");
+        this.l1Misses = gets(meterRegistry, "l1", "miss");
+        this.l2Hits = gets(meterRegistry, "l2", "hit");
+        this.l2Misses = gets(meterRegistry, "l2", "miss");
+        this.l1SizeEvictions = evictions(meterRegistry, "l1", "size");
+        this.l1ExpiredEvictions = evictions(meterRegistry, "l1", "expired");
+        this.l1Invalidations = evictions(meterRegistry, "l1", "invalidated");
+        this.l2Invalidations = evictions(meterRegistry, "l2", "invalidated");
+
+        this.local = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .removalListener((String key, Object value, RemovalCause cause) -> recordRemoval(cause))
+                .build();
+
+        Gauge.builder("cache.tier.size", local, c -> c.estimatedSize())
+                .tag("cache", name)
+                .tag("tier", "l1")
+                .register(meterRegistry);
+    }
+
+    private Counter gets(MeterRegistry registry, String tier, String result) {
+        return Counter.builder("cache.tier.gets")
+                .tag("cache", name)
+                .tag("tier", tier)
+                .tag("result", result)
+                .register(registry);
+    }
+
+    private Counter evictions(MeterRegistry registry, String tier, String cause) {
+        return Counter.builder("cache.tier.evictions")
+                .tag("cache", name)
+                .tag("tier", tier)
+                .tag("cause", cause)
+                .register(registry);
+    }
+
+    private void recordRemoval(RemovalCause cause) {
+        switch (cause) {
+            case SIZE, COLLECTED -> l1SizeEvictions.increment();
+            case EXPIRED -> l1ExpiredEvictions.increment();
+            case EXPLICIT -> l1Invalidations.increment();
+            default -> { }
+        }
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return local;
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        String localKey = localKey(key);
+        Object value = local.getIfPresent(localKey);
+        if (value != null) {
+            l1Hits.increment();
+            return new SimpleValueWrapper(value);
+        }
+        l1Misses.increment();
+
+        ValueWrapper wrapper = remote.get(key);
+        if (wrapper == null || wrapper.get() == null) {
+            l2Misses.increment();
+            return null;
+        }
+        l2Hits.increment();
+        local.put(localKey, wrapper.get());
+        return wrapper;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        Object value = wrapper != null ? wrapper.get() : null;
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper wrapper = get(key);
+        if (wrapper != null) {
+            return (T) wrapper.get();
+        }
+        T value;
+        try {
+            value = valueLoader.call();
+        } catch (Exception ex) {
+            throw new ValueRetrievalException(key, valueLoader, ex);
+        }
+        if (value != null) {
+            // freshly loaded, no other node can hold a newer copy -> no broadcast needed
+            remote.put(key, value);
+            local.put(localKey(key), value);
+        }
+        return value;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        remote.put(key, value);
+        String localKey = localKey(key);
+        if (value != null) {
+            local.put(localKey, value);
+        } else {
+            local.invalidate(localKey);
+        }
+        manager.publishEvict(name, localKey);
+    }
+
+    // L1 holds whole values, so only L2 gets the changed properties
+    @Override
+    public void putFields(Object key, Object value, Collection<String> changed) {
+        if (remote instanceof FieldUpdatableCache fields) {
+            fields.putFields(key, value, changed);
+        } else {
+            remote.put(key, value);
+        }
+        String localKey = localKey(key);
+        local.put(localKey, value);
+        manager.publishEvict(name, localKey);
+    }
+
+    @Override
+    public void evict(Object key) {
+        remote.evict(key);
+        l2Invalidations.increment();
+        String localKey = localKey(key);
+        local.invalidate(localKey);
+        manager.publishEvict(name, localKey);
+    }
+
+    @Override
+    public void clear() {
+        remote.clear();
+        local.invalidateAll();
+        manager.publishClear(name);
+    }
+
+    /** Drop the L1 copy only - used when another node changed the entry. */
+    void evictLocal(String localKey) {
+        local.invalidate(localKey);
+    }
+
+    void clearLocal() {
+        local.invalidateAll();
+    }
+
+    static String localKey(Object key) {
+        return String.valueOf(key);
+    }
+}
@@ -0,0 +1,143 @@
+package com.siddardha.redisDemonstration.Cache;
+
+import com.siddardha.redisDemonstration.Config.CachingProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Fronts the Redis cache manager with a per-node L1 for the caches listed in {@code cache.near.cache-names}.
+ * L1 copies are invalidated across nodes through Redis pub/sub; messages look like
+ * {@code <nodeId>\n<cacheName>\n<key>} (no key line means "clear the whole cache").
+ * Every cache it hands out (near or Redis only) loads through a {@link StampedeProtectedCache}, and its Redis tier
+ * degrades to misses and skipped writes while Redis is unavailable ({@link FailOpenCache}).
+ */
+public class TwoTierCacheManager implements CacheManager, MessageListener {
+
+    private static final Logger log = LoggerFactory.getLogger(TwoTierCacheManager.class);
+
+    private final CacheManager remoteCacheManager;
+    private final StringRedisTemplate redisTemplate;
+    private final MeterRegistry meterRegistry;
+    private final CachingProperties.Near settings;
+    private final CachingProperties.Stampede stampede;
+    private final JitteredTtl ttl;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final ConcurrentMap<String, TwoTierCache> caches = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, StampedeProtectedCache> protectedCaches = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, FailOpenCache> redisCaches = new ConcurrentHashMap<>();
+
+    public TwoTierCacheManager(CacheManager remoteCacheManager,
+                               StringRedisTemplate redisTemplate,
+                               MeterRegistry meterRegistry,
+                               CachingProperties cachingProperties,
+                               JitteredTtl ttl,
+                               RedisCircuitBreaker circuitBreaker) {
+        this.remoteCacheManager = remoteCacheManager;
+        this.redisTemplate = redisTemplate;
+        this.meterRegistry = meterRegistry;
+        this.settings = cachingProperties.getNear();
+        this.stampede = cachingProperties.getStampede();
+        this.ttl = ttl;
+        circuitBreaker.onClose(this::clearStaleCaches);
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        return protectedCaches.computeIfAbsent(name, cacheName -> {
+            Cache cache = settings.getCacheNames().contains(cacheName)
+                    ? nearCache(cacheName)
+                    : redisCache(cacheName);
+            if (cache == null) {
+                return null;
+            }
+            return new StampedeProtectedCache(cache, redisTemplate, ttl, stampede, nodeId, meterRegistry);
+        });
+    }
+
+    private Cache nearCache(String name) {
+        return caches.computeIfAbsent(name, cacheName -> {
+            Cache remote = redisCache(cacheName);
+            if (remote == null) {
+                return null;
+            }
+            return new TwoTierCache(cacheName, remote, this,
+                    settings.getMaximumSize(), settings.getTtl(), meterRegistry);
+        });
+    }
+
+    private Cache redisCache(String name) {
+        return redisCaches.computeIfAbsent(name, cacheName -> {
+            Cache remote = remoteCacheManager.getCache(cacheName);
+            return remote != null ? new FailOpenCache(remote, meterRegistry) : null;
+        });
+    }
+
+    /**
+     * Whether the Redis entries of a cache can be read directly (RedisCacheBatch, ResponseBodyCache): false until a
+     * cache that skipped writes during a Redis outage has been cleared.
+     */
+    public boolean isRedisTierCurrent(String cacheName) {
+        FailOpenCache cache = redisCaches.get(cacheName);
+        return cache == null || cache.isCurrent();
+    }
+
+    // Redis is back: drop what may have gone stale while writes to it were skipped
+    private void clearStaleCaches() {
+        redisCaches.values().forEach(FailOpenCache::clearStale);
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        Set<String> names = new LinkedHashSet<>(remoteCacheManager.getCacheNames());
+        names.addAll(protectedCaches.keySet());
+        return names;
+    }
+
+    void publishEvict(String cacheName, String key) {
+        publish(nodeId + "\n" + cacheName + "\n" + key);
+    }
+
+    void publishClear(String cacheName) {
+        publish(nodeId + "\n" + cacheName);
+    }
+
+    private void publish(String message) {
+        try {
+            redisTemplate.convertAndSend(settings.getInvalidationChannel(), message);
+        } catch (RuntimeException ex) {
+            // L2 is already updated; other nodes fall back to the L1 TTL
+            log.warn("Could not publish cache invalidation: {}", ex.getMessage());
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split("\n", 3);
+        if (parts.length < 2 || nodeId.equals(parts[0])) {
+            return;
+        }
+        TwoTierCache cache = caches.get(parts[1]);
+        if (cache == null) {
+            return;
+        }
+        if (parts.length == 2) {
+            cache.clearLocal();
+        } else {
+            cache.evictLocal(parts[2]);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.siddardha.redisDemonstration.Config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+@Configuration
+@ConfigurationProperties(prefix = "cache")
+@Data
+public class CachingProperties {
+
+    // TTL of every entry stored in Redis (L2)
+    private Duration ttl = Duration.ofMinutes(5);
+
+    // each entry's TTL is spread by up to +/- this fraction of ttl, so entries loaded together expire apart
+    private double ttlJitter = 0.1;
+
+    private Stampede stampede = new Stampede();
+
+    private Near near = new Near();
+
+    private Generations generations = new Generations();
+
+    // value encoding per cache name (cache.codecs.<name>=json|smile|smile-lz4|hash), JSON for caches not listed
+    private Map<String, Codec> codecs = new HashMap<>();
+
+    // smile-lz4 only compresses values whose Smile encoding is larger than this (bytes)
+    private int compressionThreshold = 512;
+
+    @Data
+    public static class Stampede {
+
+        // how long one node may hold the distributed load lease; other nodes wait at most this long for its result
+        private Duration leaseTimeout = Duration.ofSeconds(3);
+
+        // XFetch beta for refresh-ahead: higher refreshes earlier, 0 disables refresh-ahead
+        private double refreshBeta = 1.0;
+
+        // loads remembered per cache for refresh-ahead (only the node that loaded an entry refreshes it)
+        private long maxTrackedLoads = 10_000;
+    }
+
+    public enum Codec {
+        // self-describing JSON with class names, readable with redis-cli
+        JSON,
+        SMILE,
+        SMILE_LZ4,
+        // one Redis hash per entry, one field per property (flat value types only, see RedisHashCache)
+        HASH
+    }
+
+    @Data
+    public static class Near {
+
+        // caches that get an in-process L1 in front of Redis
+        private Set<String> cacheNames = new HashSet<>(Set.of("employee"));
+
+        private long maximumSize = 10_000;
+
+        // keep this well below the Redis TTL, it bounds staleness if an invalidation message is lost
+        private Duration ttl = Duration.ofSeconds(30);
+
+        private String invalidationChannel = "cache:invalidation";
+    }
+
+    @Data
+    public static class Generations {
+
+        // how often a node re-reads the generation counters, in case it missed a generation change message
+        private Duration refreshInterval = Duration.ofSeconds(5);
+
+        private String channel = "cache:generations";
+    }
+}
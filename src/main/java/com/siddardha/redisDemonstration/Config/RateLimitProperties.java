@@ -0,0 +1,50 @@
+package com.siddardha.redisDemonstration.Config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * rate-limit.defaults.* applies unless a route/tier specific policy is configured, e.g.
+ * rate-limit.routes.employee-lookup.admin.limit=100
+ */
+@Configuration
+@ConfigurationProperties(prefix = "rate-limit")
+@Data
+public class RateLimitProperties {
+
+    private Policy defaults = new Policy();
+
+    private Local local = new Local();
+
+    // route -> user tier -> policy
+    private Map<String, Map<String, Policy>> routes = new HashMap<>();
+
+    public Policy policyFor(String route, String tier) {
+        Map<String, Policy> tiers = routes.get(route);
+        if (tiers == null) {
+            return defaults;
+        }
+        return tiers.getOrDefault(tier, defaults);
+    }
+
+    // per-node pre-filter in front of Redis, see LocalRateLimiterService
+    @Data
+    public static class Local {
+        private boolean enabled = true;
+        // upper bound of permits leased from Redis per call; the lease is also capped at limit / 10
+        private int maxLease = 10;
+        private long maxBuckets = 100_000;
+        private Duration bucketIdleTimeout = Duration.ofMinutes(10);
+    }
+
+    @Data
+    public static class Policy {
+        private int limit = 5;
+        private Duration window = Duration.ofSeconds(60);
+    }
+}
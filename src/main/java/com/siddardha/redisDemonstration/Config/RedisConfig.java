@@ -1,27 +1,60 @@
 package com.siddardha.redisDemonstration.Config;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.siddardha.redisDemonstration.Cache.CacheGenerations;
+import com.siddardha.redisDemonstration.Cache.CircuitBreakingCacheWriter;
+import com.siddardha.redisDemonstration.Cache.CircuitBreakingRedisTemplate;
+import com.siddardha.redisDemonstration.Cache.CircuitBreakingStringRedisTemplate;
+import com.siddardha.redisDemonstration.Cache.EmployeePageCache;
+import com.siddardha.redisDemonstration.Cache.GenerationalCacheWriter;
+import com.siddardha.redisDemonstration.Cache.HashValueCodec;
+import com.siddardha.redisDemonstration.Cache.JitteredTtl;
+import com.siddardha.redisDemonstration.Cache.RedisCircuitBreaker;
+import com.siddardha.redisDemonstration.Cache.RedisHashCacheManager;
+import com.siddardha.redisDemonstration.Cache.RetryingListenerContainer;
+import com.siddardha.redisDemonstration.Cache.SmileRedisSerializer;
+import com.siddardha.redisDemonstration.Cache.TwoTierCacheManager;
+import com.siddardha.redisDemonstration.DTO.EmployeePageResponse;
+import com.siddardha.redisDemonstration.Model.Employee;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.cache.RedisCacheWriter;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
 
-import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
 
 @Configuration
 @EnableCaching
 public class RedisConfig {
 
+    /**
+     * Commands of both templates and of the cache writer go through the RedisCircuitBreaker, and time out after
+     * spring.data.redis.timeout: while Redis is down or stalled, callers fail fast and fall back instead of blocking.
+     * The pub/sub listener container keeps its own connection and reconnects on its own.
+     */
+    @Bean
+    public StringRedisTemplate stringRedisTemplate(RedisConnectionFactory connectionFactory, RedisCircuitBreaker redisCircuitBreaker) {
+        return new CircuitBreakingStringRedisTemplate(connectionFactory, redisCircuitBreaker);
+    }
+
     @Bean
-    public RedisTemplate<String, Object> redisTemplate(RedisConnectionFactory connectionFactory) {
-        RedisTemplate<String, Object> template = new RedisTemplate<>();
+    public RedisTemplate<String, Object> redisTemplate(RedisConnectionFactory connectionFactory, RedisCircuitBreaker redisCircuitBreaker) {
+        RedisTemplate<String, Object> template = new CircuitBreakingRedisTemplate<>(redisCircuitBreaker);
         template.setConnectionFactory(connectionFactory);
         
         // Use the same serializer for both template and cache
@@ -43,7 +76,24 @@ public class RedisConfig {
     }
 
     @Bean
-    public RedisCacheManager cacheManager(RedisConnectionFactory connectionFactory) {
+    public JitteredTtl cacheTtl(CachingProperties cachingProperties) {
+        return new JitteredTtl(cachingProperties.getTtl(), cachingProperties.getTtlJitter());
+    }
+
+    @Bean
+    public CacheGenerations cacheGenerations(StringRedisTemplate stringRedisTemplate, CachingProperties cachingProperties) {
+        return new CacheGenerations(stringRedisTemplate, cachingProperties.getGenerations().getChannel(),
+                cachingProperties.getGenerations().getRefreshInterval());
+    }
+
+    /**
+     * Keys are prefixed with the cache's generation (employee:v3::42), so clearing a cache is one INCR instead of
+     * a KEYS/SCAN + DEL over the whole Redis keyspace (see GenerationalCacheWriter).
+     */
+    @Bean
+    public RedisCacheManager redisCacheManager(RedisConnectionFactory connectionFactory, CachingProperties cachingProperties,
+                                               JitteredTtl cacheTtl, CacheGenerations cacheGenerations,
+                                               StringRedisTemplate stringRedisTemplate, RedisCircuitBreaker redisCircuitBreaker) {
         // Use the same serializer configuration as RedisTemplate
         ObjectMapper om = Jackson2ObjectMapperBuilder.json().build();
         om.enableDefaultTyping(ObjectMapper.DefaultTyping.NON_FINAL);
@@ -52,12 +102,76 @@ public class RedisConfig {
         RedisCacheConfiguration cacheConfiguration = RedisCacheConfiguration.defaultCacheConfig()
                 .serializeKeysWith(RedisSerializationContext.SerializationPair.fromSerializer(new StringRedisSerializer()))
                 .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(jsonSerializer))
-                .entryTtl(Duration.ofMinutes(5))
+                .entryTtl(cacheTtl)
+                .computePrefixWith(cacheGenerations)
                 .disableCachingNullValues();
 
-        return RedisCacheManager.builder(connectionFactory)
-                .cacheDefaults(cacheConfiguration)
-                .build();
+        // generation changes go through the template, so the breaker only wraps the writer below
+        RedisCacheWriter cacheWriter = new GenerationalCacheWriter(new CircuitBreakingCacheWriter(
+                RedisCacheWriter.nonLockingRedisCacheWriter(connectionFactory), redisCircuitBreaker), cacheGenerations);
+        Map<String, RedisCacheConfiguration> cacheConfigurations = new HashMap<>();
+        Map<String, HashValueCodec<?>> hashCodecs = new HashMap<>();
+        cachingProperties.getCodecs().forEach((cacheName, codec) -> {
+            switch (codec) {
+                case JSON -> { }
+                case HASH -> {
+                    hashCodecs.put(cacheName, new HashValueCodec<>(valueType(cacheName, codec)));
+                    cacheConfigurations.put(cacheName, cacheConfiguration);
+                }
+                default -> cacheConfigurations.put(cacheName, cacheConfiguration.serializeValuesWith(
+                        RedisSerializationContext.SerializationPair.fromSerializer(
+                                binarySerializer(cacheName, codec, cachingProperties.getCompressionThreshold()))));
+            }
+        });
+        return new RedisHashCacheManager(cacheWriter, cacheConfiguration, cacheConfigurations, hashCodecs, stringRedisTemplate);
 
     }
+
+    // binary and hash codecs carry no type information, so every cache using one needs its value type registered here
+    private static final Map<String, Class<?>> CACHE_VALUE_TYPES = Map.of(
+            "employee", Employee.class,
+            EmployeePageCache.CACHE_NAME, EmployeePageResponse.class);
+
+    private static Class<?> valueType(String cacheName, CachingProperties.Codec codec) {
+        Class<?> type = CACHE_VALUE_TYPES.get(cacheName);
+        if (type == null) {
+            throw new IllegalStateException("cache.codecs." + cacheName + "=" + codec
+                    + " needs a value type, but none is registered for cache '" + cacheName + "'");
+        }
+        return type;
+    }
+
+    private static SmileRedisSerializer<?> binarySerializer(String cacheName, CachingProperties.Codec codec, int threshold) {
+        return new SmileRedisSerializer<>(valueType(cacheName, codec), codec == CachingProperties.Codec.SMILE_LZ4 ? threshold : -1);
+    }
+
+    /**
+     * Cache manager used by @Cacheable & co: caches listed in cache.near.cache-names get an in-process L1
+     * in front of Redis, every other cache goes straight to the RedisCacheManager. Loads of every cache are
+     * stampede-protected (see StampedeProtectedCache).
+     */
+    @Bean
+    @Primary
+    public TwoTierCacheManager cacheManager(RedisCacheManager redisCacheManager,
+                                            StringRedisTemplate stringRedisTemplate,
+                                            MeterRegistry meterRegistry,
+                                            CachingProperties cachingProperties,
+                                            JitteredTtl cacheTtl,
+                                            RedisCircuitBreaker redisCircuitBreaker) {
+        return new TwoTierCacheManager(redisCacheManager, stringRedisTemplate, meterRegistry, cachingProperties, cacheTtl,
+                redisCircuitBreaker);
+    }
+
+    // Receives L1 invalidations and generation changes published by the other nodes
+    @Bean
+    public RedisMessageListenerContainer cacheInvalidationListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                           TwoTierCacheManager cacheManager,
+                                                                           CacheGenerations cacheGenerations,
+                                                                           CachingProperties cachingProperties) {
+        RedisMessageListenerContainer container = new RetryingListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(cacheManager, new ChannelTopic(cachingProperties.getNear().getInvalidationChannel()));
+        container.addMessageListener(cacheGenerations, new ChannelTopic(cachingProperties.getGenerations().getChannel()));
+        return container;
+    }
 }
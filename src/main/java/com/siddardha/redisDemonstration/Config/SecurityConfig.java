@@ -1,5 +1,6 @@
 package com.siddardha.redisDemonstration.Config;
 import com.siddardha.redisDemonstration.Util.JwtAuthenticationFilter;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -35,6 +36,8 @@ public class SecurityConfig {
                 .authorizeHttpRequests(auth ->
                         auth.requestMatchers("/h2-console/**").permitAll()
                                 .requestMatchers("/api/users/register", "/api/users/login").permitAll()
+                                // probes carry no token and expose nothing but UP / OUT_OF_SERVICE
+                                .requestMatchers("/actuator/health/liveness", "/actuator/health/readiness").permitAll()
                                 .anyRequest().authenticated())
                /* for basic auth */
                 //.httpBasic(Customizer.withDefaults())
@@ -49,9 +52,10 @@ public class SecurityConfig {
         return http.build();
     }
 
+    // stored hashes with another work factor are rehashed on the next successful login
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${security.bcrypt.strength:10}") int strength) {
+        return new BCryptPasswordEncoder(strength);
     }
 
     @Bean
@@ -0,0 +1,220 @@
+package com.siddardha.redisDemonstration.Config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.siddardha.redisDemonstration.Cache.EmployeeHotKeys;
+import com.siddardha.redisDemonstration.Cache.EmployeePageCache;
+import com.siddardha.redisDemonstration.Cache.RedisCacheLayout;
+import com.siddardha.redisDemonstration.Cache.RedisHashCache;
+import com.siddardha.redisDemonstration.DTO.EmployeePageResponse;
+import com.siddardha.redisDemonstration.Mapper.EmployeeMapper;
+import com.siddardha.redisDemonstration.Model.Employee;
+import com.siddardha.redisDemonstration.Service.EmployeeService;
+import com.siddardha.redisDemonstration.Util.JwtUtil;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Warm-up before the node takes traffic. Runners finish before the readiness state turns ACCEPTING_TRAFFIC, so
+ * /actuator/health/readiness stays OUT_OF_SERVICE until this is done (warmup.enabled, bounded by warmup.timeout).
+ * - pools: fills the Hikari pool to its maximum size and opens the Redis connection.
+ * - hot-keys: loads the warmup.hot-keys.preload most read employees (EmployeeHotKeys) into the Redis and near cache.
+ * - jit: runs the cache codecs and the response mapping warmup.jit-iterations times, page codec and JWT
+ *   signing/parsing every 10th time.
+ * A failing or slow phase is logged and skipped; it never keeps the node from starting.
+ * Metric: application.warmup.time{phase}, one value per phase and phase="total".
+ */
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE)
+public class WarmUpRunner implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(WarmUpRunner.class);
+
+    private static final int PRELOAD_BATCH = 200;
+    private static final int SAMPLE_PAGE_SIZE = 20;
+
+    private final DataSource dataSource;
+    private final RedisConnectionFactory redisConnectionFactory;
+    private final EmployeeHotKeys employeeHotKeys;
+    private final EmployeeService employeeService;
+    private final CacheManager cacheManager;
+    private final RedisCacheManager redisCacheManager;
+    private final JwtUtil jwtUtil;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final int preload;
+    private final int jitIterations;
+    private final Duration timeout;
+    private final int dbConnections;
+
+    public WarmUpRunner(DataSource dataSource,
+                        RedisConnectionFactory redisConnectionFactory,
+                        EmployeeHotKeys employeeHotKeys,
+                        EmployeeService employeeService,
+                        CacheManager cacheManager,
+                        RedisCacheManager redisCacheManager,
+                        JwtUtil jwtUtil,
+                        ObjectMapper objectMapper,
+                        MeterRegistry meterRegistry,
+                        @Value("${warmup.enabled:true}") boolean enabled,
+                        @Value("${warmup.hot-keys.preload:500}") int preload,
+                        @Value("${warmup.jit-iterations:5000}") int jitIterations,
+                        @Value("${warmup.timeout:30s}") Duration timeout,
+                        @Value("${spring.datasource.hikari.maximum-pool-size:10}") int dbConnections) {
+        this.dataSource = dataSource;
+        this.redisConnectionFactory = redisConnectionFactory;
+        this.employeeHotKeys = employeeHotKeys;
+        this.employeeService = employeeService;
+        this.cacheManager = cacheManager;
+        this.redisCacheManager = redisCacheManager;
+        this.jwtUtil = jwtUtil;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.preload = preload;
+        this.jitIterations = jitIterations;
+        this.timeout = timeout;
+        this.dbConnections = dbConnections;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) {
+            return;
+        }
+        long started = System.nanoTime();
+        long deadline = started + timeout.toNanos();
+        phase("pools", deadline, this::warmPools);
+        List<Employee> hot = new ArrayList<>();
+        phase("hot-keys", deadline, () -> hot.addAll(preloadHotKeys(deadline)));
+        phase("jit", deadline, () -> exerciseHotPaths(hot, deadline));
+        long total = System.nanoTime() - started;
+        record("total", total);
+        log.info("Warm-up done in {} ms", TimeUnit.NANOSECONDS.toMillis(total));
+    }
+
+    private void phase(String name, long deadline, Runnable work) {
+        if (System.nanoTime() >= deadline) {
+            log.warn("Warm-up phase {} skipped: warmup.timeout of {} reached", name, timeout);
+            return;
+        }
+        long started = System.nanoTime();
+        try {
+            work.run();
+        } catch (RuntimeException ex) {
+            log.warn("Warm-up phase {} failed: {}", name, ex.getMessage());
+        }
+        long elapsed = System.nanoTime() - started;
+        record(name, elapsed);
+        log.debug("Warm-up phase {} took {} ms", name, TimeUnit.NANOSECONDS.toMillis(elapsed));
+    }
+
+    private void record(String phase, long nanos) {
+        TimeGauge.builder("application.warmup.time", () -> nanos, TimeUnit.NANOSECONDS)
+                .description("Time spent warming up before accepting traffic")
+                .tag("phase", phase)
+                .register(meterRegistry);
+    }
+
+    private void warmPools() {
+        // holding them all at once makes Hikari open every connection now instead of on the first busy second
+        List<Connection> connections = new ArrayList<>(dbConnections);
+        try {
+            for (int i = 0; i < dbConnections; i++) {
+                Connection connection = dataSource.getConnection();
+                connections.add(connection);
+                connection.isValid(1);
+            }
+        } catch (SQLException ex) {
+            throw new IllegalStateException("Could not open database connections: " + ex.getMessage(), ex);
+        } finally {
+            for (Connection connection : connections) {
+                try {
+                    connection.close();
+                } catch (SQLException ex) {
+                    log.debug("Could not return warm-up connection: {}", ex.getMessage());
+                }
+            }
+        }
+        // commands share one native Lettuce connection: this opens it (and its TLS/auth handshake)
+        try (RedisConnection connection = redisConnectionFactory.getConnection()) {
+            connection.ping();
+        }
+    }
+
+    private List<Employee> preloadHotKeys(long deadline) {
+        List<Long> ids = employeeHotKeys.top(preload);
+        List<Employee> loaded = new ArrayList<>(ids.size());
+        Cache employeeCache = cacheManager.getCache("employee");
+        for (int from = 0; from < ids.size() && System.nanoTime() < deadline; from += PRELOAD_BATCH) {
+            List<Long> batch = ids.subList(from, Math.min(from + PRELOAD_BATCH, ids.size()));
+            // one MGET (and one findAllById for the misses, back-filled) for Redis, then promote into the near cache
+            loaded.addAll(employeeService.getEmployees(batch).values());
+            for (Long id : batch) {
+                employeeCache.get(id);
+            }
+        }
+        log.info("Warm-up preloaded {} of {} hot employees", loaded.size(), ids.size());
+        return loaded;
+    }
+
+    private void exerciseHotPaths(List<Employee> hot, long deadline) {
+        List<Employee> sample = hot.isEmpty()
+                ? List.of(new Employee(1L, "WARM-UP", "Warm Up", "Engineer", 100_000.0, 0L))
+                : hot.subList(0, Math.min(SAMPLE_PAGE_SIZE, hot.size()));
+        EmployeePageResponse page = EmployeeMapper.mapToPage(sample, SAMPLE_PAGE_SIZE);
+        RedisCacheLayout employeeLayout = RedisCacheLayout.of(redisCacheManager, "employee");
+        RedisCacheLayout pageLayout = RedisCacheLayout.of(redisCacheManager, EmployeePageCache.CACHE_NAME);
+
+        long checksum = 0;
+        int done = 0;
+        for (; done < jitIterations; done++) {
+            // checked every 100 rounds, so a slow machine stops at the deadline
+            if (done % 100 == 0 && System.nanoTime() >= deadline) {
+                break;
+            }
+            Employee emp = sample.get(done % sample.size());
+            checksum += roundTrip(employeeLayout, emp).getName().length();
+            try {
+                checksum += objectMapper.writeValueAsBytes(EmployeeMapper.mapToResponse(emp)).length;
+            } catch (Exception ex) {
+                throw new IllegalStateException("Could not serialize warm-up employee", ex);
+            }
+            // the costlier paths run every 10th round: a page holds many employees, and a request only parses its
+            // token once per verified-cache lifetime
+            if (done % 10 == 0) {
+                checksum += pageLayout.read(pageLayout.write(page)) != null ? 1 : 0;
+                checksum += jwtUtil.exercise(1);
+            }
+        }
+        log.debug("Warm-up exercised hot paths {} times (checksum {})", done, checksum);
+    }
+
+    private static Employee roundTrip(RedisCacheLayout layout, Employee emp) {
+        RedisHashCache hash = layout.hashCache();
+        return (Employee) (hash != null
+                ? hash.codec().fromFields(hash.codec().toFields(emp))
+                : layout.read(layout.write(emp)));
+    }
+}
@@ -1,42 +1,82 @@
 package com.siddardha.redisDemonstration.Controller;
 
+import com.siddardha.redisDemonstration.Cache.ResponseBodyCache;
+import com.siddardha.redisDemonstration.DTO.BulkInsertResponse;
+import com.siddardha.redisDemonstration.DTO.EmployeeBatchGetRequest;
+import com.siddardha.redisDemonstration.DTO.EmployeeBatchGetResponse;
 import com.siddardha.redisDemonstration.DTO.EmployeePartialUpdateRequest;
 import com.siddardha.redisDemonstration.DTO.EmployeeRequest;
+import com.siddardha.redisDemonstration.DTO.EmployeeSearchResponse;
+import com.siddardha.redisDemonstration.Mapper.EmployeeCsvMapper;
 import com.siddardha.redisDemonstration.Mapper.EmployeeMapper;
 import com.siddardha.redisDemonstration.Model.Employee;
+import com.siddardha.redisDemonstration.Service.EmployeeBulkService;
+import com.siddardha.redisDemonstration.Service.EmployeeSearchService;
 import com.siddardha.redisDemonstration.Service.EmployeeService;
+import com.siddardha.redisDemonstration.Service.LocalRateLimiterService;
+import com.siddardha.redisDemonstration.Service.RateLimitDecision;
 import com.siddardha.redisDemonstration.Service.RedisLimiterService;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 @RestController
 @RequestMapping("api/employees")
 public class EmployeeController {
 
+    private static final String EMPLOYEE_LOOKUP_ROUTE = "employee-lookup";
+    private static final String RATE_LIMIT_REMAINING_HEADER = "X-RateLimit-Remaining";
+
     private final EmployeeService employeeService;
-    private final RedisLimiterService redisLimiterService;
+    private final EmployeeBulkService employeeBulkService;
+    private final EmployeeSearchService employeeSearchService;
+    private final LocalRateLimiterService rateLimiterService;
 
-    public EmployeeController(EmployeeService employeeService, RedisLimiterService redisLimiterService) {
+    public EmployeeController(EmployeeService employeeService, EmployeeBulkService employeeBulkService,
+                              EmployeeSearchService employeeSearchService, LocalRateLimiterService rateLimiterService) {
         this.employeeService = employeeService;
-        this.redisLimiterService = redisLimiterService;
+        this.employeeBulkService = employeeBulkService;
+        this.employeeSearchService = employeeSearchService;
+        this.rateLimiterService = rateLimiterService;
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Employee> getEmployee(@PathVariable Long id) {
-        return ResponseEntity.ok(employeeService.getEmployee(id));
+    public ResponseEntity<?> getEmployee(@PathVariable Long id, @RequestParam(required = false) List<String> fields) {
+        if (fields != null && !fields.isEmpty()) {
+            return ResponseEntity.ok(employeeService.getEmployeeFields(id, fields));
+        }
+        return cachedBody(employeeService.getEmployeeBody(id));
     }
 
     @GetMapping("/userId/{id}")
-    public ResponseEntity<?> findEmployee(@PathVariable Long id, @RequestHeader("X-Users-Id") String userId) {
-        if (!redisLimiterService.isAllowed(userId)) {
-            Long ttl = redisLimiterService.getRemainingTtl(userId);
-            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body("Rate limit exceeded. Please try again after " + ttl + " seconds.");
+    public ResponseEntity<?> findEmployee(@PathVariable Long id, @RequestHeader("X-Users-Id") String userId, Authentication authentication) {
+        RateLimitDecision decision = rateLimiterService.isAllowed(EMPLOYEE_LOOKUP_ROUTE, RedisLimiterService.tierOf(authentication), userId);
+        if (!decision.allowed()) {
+            long retryAfter = decision.retryAfterSeconds();
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter))
+                    .header(RATE_LIMIT_REMAINING_HEADER, "0")
+                    .body("Rate limit exceeded. Please try again after " + retryAfter + " seconds.");
         }
-        return ResponseEntity.ok(employeeService.getEmployee(id));
+        ResponseBodyCache.Body body = employeeService.getEmployeeBody(id);
+        return ResponseEntity.ok()
+                .header(RATE_LIMIT_REMAINING_HEADER, String.valueOf(decision.remaining()))
+                .eTag(body.etag())
+                .contentType(body.contentType())
+                .body(body.bytes());
     }
 
     @PostMapping
@@ -45,10 +85,50 @@ public class EmployeeController {
         return ResponseEntity.status(HttpStatus.CREATED).body(EmployeeMapper.mapToResponse(saved));
     }
 
+    @PostMapping("/batch-get")
+    public ResponseEntity<EmployeeBatchGetResponse> batchGetEmployees(@Valid @RequestBody EmployeeBatchGetRequest request) {
+        return ResponseEntity.ok(employeeService.batchGetEmployees(request.getIds()));
+    }
+
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<BulkInsertResponse> bulkCreateEmployees(@RequestBody List<EmployeeRequest> employeeRequests) {
+        return ResponseEntity.ok(employeeBulkService.importEmployees(employeeRequests));
+    }
+
+    @PostMapping(value = "/bulk", consumes = "text/csv")
+    public ResponseEntity<BulkInsertResponse> bulkCreateEmployeesFromCsv(InputStream body) throws IOException {
+        try (Reader reader = new InputStreamReader(body, StandardCharsets.UTF_8)) {
+            return ResponseEntity.ok(employeeBulkService.importEmployees(EmployeeCsvMapper.parse(reader)));
+        }
+    }
+
+    @PostMapping(value = "/bulk", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<BulkInsertResponse> bulkCreateEmployeesFromUpload(@RequestParam("file") MultipartFile file) throws IOException {
+        try (Reader reader = new InputStreamReader(file.getInputStream(), StandardCharsets.UTF_8)) {
+            return ResponseEntity.ok(employeeBulkService.importEmployees(EmployeeCsvMapper.parse(reader)));
+        }
+    }
+
     @GetMapping
-    public ResponseEntity<List<Employee>> getAllEmployees() {
-        List<Employee> allEmployees = employeeService.getAllEmployees();
-        return ResponseEntity.status(HttpStatus.FOUND).body(allEmployees);
+    public ResponseEntity<byte[]> getEmployees(@RequestParam(required = false) Long afterId,
+                                               @RequestParam(required = false) Integer size) {
+        return cachedBody(employeeService.getEmployeePageBody(afterId, size));
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<EmployeeSearchResponse> searchEmployees(@RequestParam(required = false) String role,
+                                                                  @RequestParam(required = false) String name,
+                                                                  @RequestParam(required = false) Double minSalary,
+                                                                  @RequestParam(required = false) Double maxSalary,
+                                                                  @RequestParam(required = false) Integer offset,
+                                                                  @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(employeeSearchService.search(role, name, minSalary, maxSalary, offset, limit));
+    }
+
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportEmployees() {
+        StreamingResponseBody body = employeeService::exportEmployees;
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
     }
 
     @PatchMapping("/{id}")
@@ -64,9 +144,16 @@ public class EmployeeController {
     }
 
     @DeleteMapping("/{id}")
-    public ResponseEntity<?> deleteEmployee(@PathVariable Long id) {
-        employeeService.deleteEmployee(id);
+    public ResponseEntity<?> deleteEmployee(@PathVariable Long id, @RequestParam(required = false) Long version) {
+        employeeService.deleteEmployee(id, version);
         return ResponseEntity.status(HttpStatus.OK).body("Employee deleted successfully");
     }
 
+    // written out as is; Spring answers 304 without a body when If-None-Match matches the ETag
+    private static ResponseEntity<byte[]> cachedBody(ResponseBodyCache.Body body) {
+        return ResponseEntity.ok()
+                .eTag(body.etag())
+                .contentType(body.contentType())
+                .body(body.bytes());
+    }
 }
@@ -0,0 +1,14 @@
+package com.siddardha.redisDemonstration.DTO;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class BulkInsertResponse {
+    private int received;
+    private int inserted;
+    private int failed;
+    private List<BulkRowError> errors = new ArrayList<>();
+}
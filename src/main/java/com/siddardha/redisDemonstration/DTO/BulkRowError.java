@@ -0,0 +1,15 @@
+package com.siddardha.redisDemonstration.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkRowError {
+    // 1-based position of the row in the uploaded array / CSV data rows
+    private int row;
+    private String employeeId;
+    private String message;
+}
@@ -0,0 +1,13 @@
+package com.siddardha.redisDemonstration.DTO;
+
+import jakarta.validation.constraints.NotEmpty;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class EmployeeBatchGetRequest {
+
+    @NotEmpty(message = "ids must contain at least one id")
+    private List<Long> ids;
+}
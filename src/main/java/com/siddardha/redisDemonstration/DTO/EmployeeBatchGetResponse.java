@@ -0,0 +1,14 @@
+package com.siddardha.redisDemonstration.DTO;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class EmployeeBatchGetResponse {
+    // one entry per requested id, in request order (duplicates included)
+    private List<EmployeeBatchGetResult> results = new ArrayList<>();
+    private int found;
+    private int notFound;
+}
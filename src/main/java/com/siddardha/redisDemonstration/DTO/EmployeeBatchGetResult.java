@@ -0,0 +1,17 @@
+package com.siddardha.redisDemonstration.DTO;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class EmployeeBatchGetResult {
+    private Long id;
+    private boolean found;
+    // null when found is false
+    private EmployeeResponse employee;
+}
@@ -0,0 +1,15 @@
+package com.siddardha.redisDemonstration.DTO;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class EmployeePageResponse {
+    private List<EmployeeResponse> content = new ArrayList<>();
+    // pass as afterId to fetch the next page, null when this is the last page
+    private Long nextCursor;
+    private boolean hasNext;
+    private int size;
+}
@@ -8,4 +8,7 @@ public class EmployeePartialUpdateRequest {
     private String name;
     private String role;
     private Double salary;
+
+    // optional: the version last read; the update fails with 409 if the employee changed since
+    private Long version;
 }
@@ -18,4 +18,7 @@ public class EmployeeRequest {
     @NotNull(message = "salary should not be null or empty")
     private Double salary;
 
+    // optional on updates: the version last read; the update fails with 409 if the employee changed since
+    private Long version;
+
 }
@@ -9,4 +9,5 @@ public class EmployeeResponse {
     private String name;
     private String role;
     private double salary;
+    private Long version;
 }
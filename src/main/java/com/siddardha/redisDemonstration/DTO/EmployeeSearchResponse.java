@@ -0,0 +1,17 @@
+package com.siddardha.redisDemonstration.DTO;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class EmployeeSearchResponse {
+    private List<EmployeeResponse> content = new ArrayList<>();
+    // pass as offset to fetch the next page, null when there are no more matches
+    private Integer nextOffset;
+    private boolean hasNext;
+    private int limit;
+    // "index" (Redis secondary index) or "database" (while the index is being built)
+    private String source;
+}
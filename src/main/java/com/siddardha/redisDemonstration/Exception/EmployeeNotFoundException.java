@@ -1,10 +1,14 @@
 package com.siddardha.redisDemonstration.Exception;
 
+/**
+ * Thrown for every lookup of an unknown id, including scans of random ids, so it skips the stack trace:
+ * it is always handled as a 404 and the trace would never be looked at.
+ */
 public class EmployeeNotFoundException extends RuntimeException {
 
 
     public EmployeeNotFoundException(String message) {
-        super(message);
+        super(message, null, false, false);
     }
 
 }
@@ -0,0 +1,7 @@
+package com.siddardha.redisDemonstration.Exception;
+
+public class EmployeeVersionConflictException extends RuntimeException {
+    public EmployeeVersionConflictException(String message) {
+        super(message);
+    }
+}
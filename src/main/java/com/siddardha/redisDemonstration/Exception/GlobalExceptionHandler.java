@@ -1,6 +1,7 @@
 package com.siddardha.redisDemonstration.Exception;
 
 import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ProblemDetail;
 import org.springframework.http.ResponseEntity;
@@ -46,6 +47,30 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(pd);
     }
 
+    @ExceptionHandler(EmployeeVersionConflictException.class)
+    public ResponseEntity<ProblemDetail> handleEmployeeVersionConflictException(EmployeeVersionConflictException ex, HttpServletRequest req) {
+        ProblemDetail pd = ProblemDetail.forStatusAndDetail(HttpStatus.CONFLICT, ex.getMessage());
+        pd.setTitle("Employee Version Conflict");
+        pd.setProperty("Path", req.getRequestURI());
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(pd);
+    }
+
+    @ExceptionHandler(LoginThrottledException.class)
+    public ResponseEntity<ProblemDetail> handleLoginThrottledException(LoginThrottledException ex, HttpServletRequest req) {
+        ProblemDetail pd = ProblemDetail.forStatusAndDetail(HttpStatus.TOO_MANY_REQUESTS, ex.getMessage());
+        pd.setTitle("Too Many Logins");
+        pd.setProperty("Path", req.getRequestURI());
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).header(HttpHeaders.RETRY_AFTER, "1").body(pd);
+    }
+
+    // Redis is down and the request has no fallback for it; the circuit breaker probes again within seconds
+    @ExceptionHandler(RedisUnavailableException.class)
+    public ResponseEntity<ProblemDetail> handleRedisUnavailableException(RedisUnavailableException ex, HttpServletRequest req) {
+        ProblemDetail pd = ProblemDetail.forStatusAndDetail(HttpStatus.SERVICE_UNAVAILABLE, ex.getMessage());
+        pd.setTitle("Redis Unavailable");
+        pd.setProperty("Path", req.getRequestURI());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1").body(pd);
+    }
 
     @ExceptionHandler(IllegalArgumentException.class)
     public ResponseEntity<ProblemDetail> handleBadRequests(IllegalArgumentException ex, HttpServletRequest req) {
@@ -0,0 +1,9 @@
+package com.siddardha.redisDemonstration.Exception;
+
+/** The login pool is saturated; answered with 429 so clients back off instead of piling up. */
+public class LoginThrottledException extends RuntimeException {
+
+    public LoginThrottledException(String message) {
+        super(message);
+    }
+}
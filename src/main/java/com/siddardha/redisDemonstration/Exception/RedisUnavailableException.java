@@ -0,0 +1,18 @@
+package com.siddardha.redisDemonstration.Exception;
+
+import org.springframework.data.redis.RedisConnectionFailureException;
+
+/**
+ * Redis could not serve a command: it timed out, the connection failed, or the circuit breaker is open and the
+ * command was not sent at all (see RedisCircuitBreaker).
+ */
+public class RedisUnavailableException extends RedisConnectionFailureException {
+
+    public RedisUnavailableException(String message) {
+        super(message);
+    }
+
+    public RedisUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,85 @@
+package com.siddardha.redisDemonstration.Mapper;
+
+import com.siddardha.redisDemonstration.DTO.EmployeeRequest;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Parses bulk-import CSV: employeeId,name,role,salary (header line optional, double quotes allowed).
+ * Unparseable values are left null so they are reported by bean validation like any other bad row.
+ */
+public class EmployeeCsvMapper {
+
+    public static List<EmployeeRequest> parse(Reader reader) throws IOException {
+        List<EmployeeRequest> rows = new ArrayList<>();
+        BufferedReader in = new BufferedReader(reader);
+        String line;
+        boolean first = true;
+        while ((line = in.readLine()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+            List<String> fields = split(line);
+            if (first) {
+                first = false;
+                if ("employeeId".equalsIgnoreCase(fields.get(0).trim())) {
+                    continue;
+                }
+            }
+            rows.add(mapToRequest(fields));
+        }
+        return rows;
+    }
+
+    private static EmployeeRequest mapToRequest(List<String> fields) {
+        EmployeeRequest request = new EmployeeRequest();
+        request.setEmployeeId(field(fields, 0));
+        request.setName(field(fields, 1));
+        request.setRole(field(fields, 2));
+        String salary = field(fields, 3);
+        if (salary != null) {
+            try {
+                request.setSalary(Double.valueOf(salary));
+            } catch (NumberFormatException ignored) {
+                // left null -> rejected by validation
+            }
+        }
+        return request;
+    }
+
+    private static String field(List<String> fields, int index) {
+        if (index >= fields.size()) {
+            return null;
+        }
+        String value = fields.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private static List<String> split(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == '"') {
+                if (quoted && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else {
+                    quoted = !quoted;
+                }
+            } else if (c == ',' && !quoted) {
+                fields.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        fields.add(current.toString());
+        return fields;
+    }
+}
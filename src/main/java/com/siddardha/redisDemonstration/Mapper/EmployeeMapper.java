@@ -1,9 +1,14 @@
 package com.siddardha.redisDemonstration.Mapper;
 
+import com.siddardha.redisDemonstration.DTO.EmployeePageResponse;
 import com.siddardha.redisDemonstration.DTO.EmployeeResponse;
 import com.siddardha.redisDemonstration.Model.Employee;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
 @Component
 public class EmployeeMapper {
 
@@ -14,7 +19,21 @@ public class EmployeeMapper {
         response.setName(emp.getName());
         response.setRole(emp.getRole());
         response.setSalary(emp.getSalary());
+        response.setVersion(emp.getVersion());
         return response;
     }
 
+    /** @param rows up to size + 1 rows ordered by id; the extra row only tells whether there is a next page */
+    public static EmployeePageResponse mapToPage(List<Employee> rows, int size) {
+        boolean hasNext = rows.size() > size;
+        List<Employee> pageRows = hasNext ? rows.subList(0, size) : rows;
+
+        EmployeePageResponse page = new EmployeePageResponse();
+        page.setContent(pageRows.stream().map(EmployeeMapper::mapToResponse).collect(Collectors.toCollection(ArrayList::new)));
+        page.setHasNext(hasNext);
+        page.setNextCursor(hasNext ? pageRows.get(pageRows.size() - 1).getId() : null);
+        page.setSize(size);
+        return page;
+    }
+
 }
@@ -4,6 +4,10 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -12,13 +16,27 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 @Data
 @Entity
+// employee_id: duplicate checks on create/import; the rest back the search filters (role + salary range,
+// salary range, name prefix)
+@Table(indexes = {
+        @Index(name = "idx_employee_employee_id", columnList = "employeeId"),
+        @Index(name = "idx_employee_role_salary", columnList = "role, salary"),
+        @Index(name = "idx_employee_salary", columnList = "salary"),
+        @Index(name = "idx_employee_name", columnList = "name")
+})
 public class Employee {
 
+    // sequence (not IDENTITY) so Hibernate can batch inserts; ids are pre-allocated in blocks of 50
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "employee_seq")
+    @SequenceGenerator(name = "employee_seq", sequenceName = "employee_seq", allocationSize = 50)
     private Long id;
     private String employeeId;
     private String name;
     private String role;
     private Double salary;
+
+    // bumped by every update; a write that names the version it read fails when someone else wrote in between
+    @Version
+    private Long version;
 }
@@ -0,0 +1,85 @@
+package com.siddardha.redisDemonstration.Reactive;
+
+import com.siddardha.redisDemonstration.Cache.RedisCacheLayout;
+import com.siddardha.redisDemonstration.Cache.RedisHashCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Non-blocking access to the Redis entries of one Spring cache, laid out as the RedisCacheManager does it
+ * (see RedisCacheLayout), so entries written here are the ones @Cacheable reads and vice versa.
+ * - Redis errors are swallowed (logged at debug): a failed read is a miss, a failed write or evict is skipped.
+ * - Entries are only added (SET NX), never overwritten: a value put by a blocking write in the meantime wins.
+ * - Caches laid out as hashes (RedisHashCache) are read with HGETALL and added with its write script.
+ */
+final class ReactiveCacheView<T> {
+
+    private static final Logger log = LoggerFactory.getLogger(ReactiveCacheView.class);
+
+    private final RedisCacheLayout layout;
+    private final Class<T> type;
+    private final ReactiveRedisTemplate<String, Object> template;
+    private final RedisHashCache hashCache;
+    private final ReactiveStringRedisTemplate strings;
+
+    ReactiveCacheView(RedisCacheManager cacheManager, String name, Class<T> type,
+                      ReactiveRedisConnectionFactory connectionFactory) {
+        this.layout = RedisCacheLayout.of(cacheManager, name);
+        this.type = type;
+        this.template = new ReactiveRedisTemplate<>(connectionFactory,
+                RedisSerializationContext.<String, Object>newSerializationContext(RedisSerializer.string())
+                        .value(layout.values())
+                        .build());
+        this.hashCache = layout.hashCache();
+        this.strings = new ReactiveStringRedisTemplate(connectionFactory);
+    }
+
+    Mono<T> get(Object key) {
+        Mono<?> value = hashCache == null
+                ? template.opsForValue().get(layout.key(key))
+                : strings.<String, String>opsForHash().entries(layout.key(key))
+                        .collectMap(Map.Entry::getKey, Map.Entry::getValue)
+                        .mapNotNull(fields -> hashCache.codec().fromFields(fields));
+        return value
+                .filter(type::isInstance)
+                .map(type::cast)
+                .onErrorResume(ex -> {
+                    log.debug("Reactive read of {}::{} failed: {}", layout.name(), key, ex.toString());
+                    return Mono.empty();
+                });
+    }
+
+    Mono<Void> evict(Object key) {
+        return template.delete(layout.key(key))
+                .onErrorResume(ex -> {
+                    log.debug("Reactive evict of {}::{} failed: {}", layout.name(), key, ex.toString());
+                    return Mono.just(0L);
+                })
+                .then();
+    }
+
+    Mono<Boolean> putIfAbsent(Object key, T value) {
+        Mono<Boolean> written = hashCache == null
+                ? template.opsForValue().setIfAbsent(layout.key(key), value, layout.ttl(key, value))
+                : strings.execute(hashCache.writeScript(), List.of(layout.key(key)),
+                                hashCache.writeArgs(RedisHashCache.WriteMode.ABSENT, key, value, Set.of()))
+                        .next()
+                        .map(result -> result == 1);
+        return written
+                .onErrorResume(ex -> {
+                    log.debug("Reactive write of {}::{} failed: {}", layout.name(), key, ex.toString());
+                    return Mono.just(false);
+                });
+    }
+}
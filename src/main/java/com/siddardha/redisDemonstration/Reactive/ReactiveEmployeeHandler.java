@@ -0,0 +1,95 @@
+package com.siddardha.redisDemonstration.Reactive;
+
+import com.siddardha.redisDemonstration.DTO.EmployeeResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ProblemDetail;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+
+import java.util.Optional;
+
+/**
+ * Read-only employee endpoints of the reactive server, mirroring EmployeeController's GETs
+ * (same paths, parameters, bodies and error responses).
+ */
+@Component
+@ConditionalOnProperty(prefix = "reactive-read", name = "enabled", havingValue = "true")
+public class ReactiveEmployeeHandler {
+
+    private final ReactiveEmployeeReader reader;
+    private final int defaultPageSize;
+    private final int maxPageSize;
+
+    public ReactiveEmployeeHandler(ReactiveEmployeeReader reader,
+                                   @Value("${employees.page.default-size:50}") int defaultPageSize,
+                                   @Value("${employees.page.max-size:200}") int maxPageSize) {
+        this.reader = reader;
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
+    }
+
+    RouterFunction<ServerResponse> routes() {
+        return RouterFunctions.route()
+                .GET("/api/employees/export", this::exportEmployees)
+                .GET("/api/employees/{id}", this::getEmployee)
+                .GET("/api/employees", this::getEmployees)
+                .build();
+    }
+
+    Mono<ServerResponse> getEmployee(ServerRequest request) {
+        long id;
+        try {
+            id = Long.parseLong(request.pathVariable("id"));
+        } catch (NumberFormatException ex) {
+            return problem(request, HttpStatus.BAD_REQUEST, "Bad Request", "Invalid employee id: " + request.pathVariable("id"));
+        }
+        return reader.findById(id)
+                .flatMap(emp -> ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).bodyValue(emp))
+                .switchIfEmpty(Mono.defer(() ->
+                        problem(request, HttpStatus.NOT_FOUND, "Employee Not Found", "Employee not found with id: " + id)));
+    }
+
+    Mono<ServerResponse> getEmployees(ServerRequest request) {
+        long afterId;
+        int size;
+        try {
+            afterId = longParam(request, "afterId").orElse(0L);
+            size = longParam(request, "size").map(Math::toIntExact).orElse(defaultPageSize);
+        } catch (NumberFormatException | ArithmeticException ex) {
+            return problem(request, HttpStatus.BAD_REQUEST, "Bad Request", "afterId and size must be numbers");
+        }
+        if (afterId < 0) {
+            return problem(request, HttpStatus.BAD_REQUEST, "Bad Request", "afterId must not be negative");
+        }
+        if (size < 1) {
+            return problem(request, HttpStatus.BAD_REQUEST, "Bad Request", "size must be at least 1");
+        }
+        return reader.getPage(afterId, Math.min(size, maxPageSize))
+                .flatMap(page -> ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).bodyValue(page));
+    }
+
+    Mono<ServerResponse> exportEmployees(ServerRequest request) {
+        return ServerResponse.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(reader.exportEmployees(), EmployeeResponse.class);
+    }
+
+    private static Optional<Long> longParam(ServerRequest request, String name) {
+        return request.queryParam(name).map(Long::parseLong);
+    }
+
+    // same body as GlobalExceptionHandler produces on the servlet stack
+    private static Mono<ServerResponse> problem(ServerRequest request, HttpStatus status, String title, String detail) {
+        ProblemDetail pd = ProblemDetail.forStatusAndDetail(status, detail);
+        pd.setTitle(title);
+        pd.setProperty("Path", request.path());
+        return ServerResponse.status(status).contentType(MediaType.APPLICATION_PROBLEM_JSON).bodyValue(pd);
+    }
+}
@@ -0,0 +1,202 @@
+package com.siddardha.redisDemonstration.Reactive;
+
+import com.siddardha.redisDemonstration.Cache.EmployeePageCache;
+import com.siddardha.redisDemonstration.Cache.JitteredTtl;
+import com.siddardha.redisDemonstration.DTO.EmployeePageResponse;
+import com.siddardha.redisDemonstration.DTO.EmployeeResponse;
+import com.siddardha.redisDemonstration.Mapper.EmployeeMapper;
+import com.siddardha.redisDemonstration.Model.Employee;
+import com.siddardha.redisDemonstration.Service.EmployeeWriteBehindService;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import io.r2dbc.spi.Readable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
+import org.springframework.data.redis.connection.ReactiveZSetCommands;
+import org.springframework.data.redis.connection.zset.Tuple;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Employee reads for the reactive server: R2DBC for the database, reactive Lettuce for the cache.
+ * - Lookups and listing pages go through the same Redis entries as the blocking stack (employee::<id>,
+ *   employees::page:<afterId>:<size> plus the page index), so a write on either stack is seen by both.
+ * - Concurrent misses of one id on this node share a single query.
+ * - With write-behind on, a miss reads the employee's queued state first (see EmployeeWriteBehindService): the
+ *   row may not have caught up with its updates, or may still be there after a delete.
+ * - The connection pool is private to this class on purpose: an R2DBC ConnectionFactory bean would make
+ *   Spring Boot back off its JDBC DataSource, which JPA needs.
+ */
+@Component
+@ConditionalOnProperty(prefix = "reactive-read", name = "enabled", havingValue = "true")
+public class ReactiveEmployeeReader implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(ReactiveEmployeeReader.class);
+
+    private static final String SELECT = "select id, employee_id, name, role, salary, version from employee";
+
+    private final ConnectionPool connectionPool;
+    private final DatabaseClient db;
+    private final ReactiveCacheView<Employee> employees;
+    private final ReactiveCacheView<EmployeePageResponse> pages;
+    private final ReactiveStringRedisTemplate redisTemplate;
+    private final JitteredTtl cacheTtl;
+    private final int exportPrefetch;
+    private final boolean writeBehind;
+    private final ConcurrentMap<Long, Mono<Employee>> inFlight = new ConcurrentHashMap<>();
+
+    public ReactiveEmployeeReader(RedisCacheManager redisCacheManager,
+                                  ReactiveRedisConnectionFactory redisConnectionFactory,
+                                  JitteredTtl cacheTtl,
+                                  @Value("${reactive-read.r2dbc.url}") String url,
+                                  @Value("${reactive-read.r2dbc.username:}") String username,
+                                  @Value("${reactive-read.r2dbc.password:}") String password,
+                                  @Value("${reactive-read.r2dbc.pool-size:10}") int poolSize,
+                                  @Value("${reactive-read.export.prefetch:256}") int exportPrefetch,
+                                  @Value("${employees.write-behind.enabled:false}") boolean writeBehind) {
+        ConnectionFactoryOptions options = ConnectionFactoryOptions.parse(url).mutate()
+                .option(ConnectionFactoryOptions.USER, username)
+                .option(ConnectionFactoryOptions.PASSWORD, password)
+                .build();
+        this.connectionPool = new ConnectionPool(ConnectionPoolConfiguration.builder(ConnectionFactories.get(options))
+                .maxSize(poolSize)
+                .build());
+        this.db = DatabaseClient.create(connectionPool);
+        this.employees = new ReactiveCacheView<>(redisCacheManager, "employee", Employee.class, redisConnectionFactory);
+        this.pages = new ReactiveCacheView<>(redisCacheManager, EmployeePageCache.CACHE_NAME,
+                EmployeePageResponse.class, redisConnectionFactory);
+        this.redisTemplate = new ReactiveStringRedisTemplate(redisConnectionFactory);
+        this.cacheTtl = cacheTtl;
+        this.exportPrefetch = exportPrefetch;
+        this.writeBehind = writeBehind;
+    }
+
+    /** @return the employee, or empty if there is no such id */
+    public Mono<Employee> findById(long id) {
+        return employees.get(id)
+                .switchIfEmpty(Mono.defer(() -> inFlight.computeIfAbsent(id, this::load)));
+    }
+
+    private Mono<Employee> load(long id) {
+        Mono<Employee> row = db.sql(SELECT + " where id = :id")
+                .bind("id", id)
+                .map(ReactiveEmployeeReader::toEmployee)
+                .one();
+        return (writeBehind ? queuedStateOr(id, row) : row)
+                .flatMap(emp -> employees.putIfAbsent(id, emp).thenReturn(emp))
+                .doFinally(signal -> inFlight.remove(id))
+                .cache();
+    }
+
+    // like EmployeeService.loadEmployee: a Redis error fails the read rather than serving a row that may be stale
+    private Mono<Employee> queuedStateOr(long id, Mono<Employee> row) {
+        return redisTemplate.<String, String>opsForHash()
+                .multiGet(EmployeeWriteBehindService.STATE_KEY_PREFIX + id, EmployeeWriteBehindService.STATE_FIELDS)
+                .flatMap(fields -> {
+                    if (EmployeeWriteBehindService.isDeleted(fields)) {
+                        return Mono.empty();
+                    }
+                    Employee state = EmployeeWriteBehindService.fromState(id, fields);
+                    return state != null ? Mono.just(state) : row;
+                });
+    }
+
+    public Mono<EmployeePageResponse> getPage(long afterId, int size) {
+        String key = EmployeePageCache.pageKey(afterId, size);
+        return pages.get(key)
+                .switchIfEmpty(Mono.defer(() -> loadAndCachePage(key, afterId, size)));
+    }
+
+    // the same steps as EmployeePageCache: indexed as covering every id after the cursor before the read, so a
+    // write from then on finds the entry; narrowed once stored, or evicted if a write removed the entry meanwhile
+    private Mono<EmployeePageResponse> loadAndCachePage(String key, long afterId, int size) {
+        return redisTemplate.opsForZSet().add(EmployeePageCache.PAGE_INDEX_KEY, key, EmployeePageCache.OPEN_END)
+                .then(redisTemplate.expire(EmployeePageCache.PAGE_INDEX_KEY, cacheTtl.max()))
+                .thenReturn(true)
+                .onErrorResume(ex -> {
+                    // a page missing from the index could never be evicted: do not cache it
+                    log.debug("Could not index employee page {}: {}", key, ex.toString());
+                    return Mono.just(false);
+                })
+                .flatMap(indexed -> loadPage(afterId, size)
+                        .flatMap(page -> indexed ? cachePage(key, page).thenReturn(page) : Mono.just(page)));
+    }
+
+    private Mono<EmployeePageResponse> loadPage(long afterId, int size) {
+        // one extra row tells whether there is a next page
+        return db.sql(SELECT + " where id > :afterId order by id limit :limit")
+                .bind("afterId", afterId)
+                .bind("limit", size + 1)
+                .map(ReactiveEmployeeReader::toEmployee)
+                .all()
+                .collectList()
+                .map(rows -> EmployeeMapper.mapToPage(rows, size));
+    }
+
+    private Mono<Void> cachePage(String key, EmployeePageResponse page) {
+        // not stored: a blocking load got there first and looks after its own entry
+        return pages.putIfAbsent(key, page)
+                .filter(Boolean::booleanValue)
+                .flatMap(stored -> redisTemplate.opsForZSet().score(EmployeePageCache.PAGE_INDEX_KEY, key)
+                        .flatMap(score -> narrowIndex(key, page))
+                        // a write removed the entry after the read; it may have evicted before the page was stored
+                        .switchIfEmpty(Mono.defer(() -> pages.evict(key))))
+                .onErrorResume(ex -> {
+                    // an entry left covering every id after the cursor only evicts the page more often than needed
+                    log.debug("Could not narrow the index entry of {}: {}", key, ex.toString());
+                    return Mono.empty();
+                });
+    }
+
+    // only if still there (ZADD XX): a write removing it now evicts after the page was stored
+    private Mono<Void> narrowIndex(String key, EmployeePageResponse page) {
+        ByteBuffer index = ByteBuffer.wrap(EmployeePageCache.PAGE_INDEX_KEY.getBytes(StandardCharsets.UTF_8));
+        Tuple entry = Tuple.of(key.getBytes(StandardCharsets.UTF_8), EmployeePageCache.indexScore(page));
+        return redisTemplate.execute(connection -> connection.zSetCommands()
+                        .zAdd(Mono.just(ReactiveZSetCommands.ZAddCommand.tuple(entry).xx().to(index))))
+                .then();
+    }
+
+    /**
+     * Every employee ordered by id, straight from the database. Rows are requested from the driver in batches
+     * of reactive-read.export.prefetch as the client consumes them, so a slow client holds back the query
+     * instead of filling the heap.
+     */
+    public Flux<EmployeeResponse> exportEmployees() {
+        return db.sql(SELECT + " order by id")
+                .map(ReactiveEmployeeReader::toEmployee)
+                .all()
+                .limitRate(exportPrefetch)
+                .map(EmployeeMapper::mapToResponse);
+    }
+
+    private static Employee toEmployee(Readable row) {
+        return new Employee(
+                row.get("id", Long.class),
+                row.get("employee_id", String.class),
+                row.get("name", String.class),
+                row.get("role", String.class),
+                row.get("salary", Double.class),
+                row.get("version", Long.class));
+    }
+
+    @Override
+    public void destroy() {
+        connectionPool.dispose();
+    }
+}
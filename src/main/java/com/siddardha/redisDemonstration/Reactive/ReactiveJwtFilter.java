@@ -0,0 +1,37 @@
+package com.siddardha.redisDemonstration.Reactive;
+
+import com.siddardha.redisDemonstration.Util.JwtUtil;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+/**
+ * Bearer-token check for the reactive server, against the same key and verified-token cache as the servlet
+ * filter. Only the token is checked (signature and expiry); the user is not loaded, since that is a blocking
+ * user-store lookup and every authenticated user may read employees.
+ */
+class ReactiveJwtFilter implements WebFilter {
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final JwtUtil jwtUtil;
+
+    ReactiveJwtFilter(JwtUtil jwtUtil) {
+        this.jwtUtil = jwtUtil;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        String authHeader = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        if (authHeader != null && authHeader.startsWith(BEARER_PREFIX)
+                && jwtUtil.verify(authHeader.substring(BEARER_PREFIX.length())) != null) {
+            return chain.filter(exchange);
+        }
+        // same status the servlet stack answers unauthenticated requests with
+        exchange.getResponse().setStatusCode(HttpStatus.FORBIDDEN);
+        return exchange.getResponse().setComplete();
+    }
+}
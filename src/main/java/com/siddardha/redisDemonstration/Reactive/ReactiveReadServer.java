@@ -0,0 +1,77 @@
+package com.siddardha.redisDemonstration.Reactive;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.siddardha.redisDemonstration.Util.JwtUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.boot.web.server.WebServer;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.server.reactive.HttpHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.HandlerStrategies;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import reactor.netty.resources.LoopResources;
+
+/**
+ * Reactive read path: a second HTTP server (Reactor Netty, reactive-read.port) next to Tomcat, serving the
+ * employee GET endpoints without blocking, on reactive-read.event-loop-threads event-loop threads.
+ * Writes and everything else stay on the servlet stack; both share the Redis cache entries and the database.
+ * Enabled with reactive-read.enabled=true.
+ */
+@Component
+@ConditionalOnProperty(prefix = "reactive-read", name = "enabled", havingValue = "true")
+public class ReactiveReadServer implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(ReactiveReadServer.class);
+
+    private final HttpHandler httpHandler;
+    private final int port;
+    private final int eventLoopThreads;
+    private LoopResources loopResources;
+    private WebServer webServer;
+
+    public ReactiveReadServer(ReactiveEmployeeHandler handler,
+                              JwtUtil jwtUtil,
+                              ObjectMapper objectMapper,
+                              @Value("${reactive-read.port:8081}") int port,
+                              @Value("${reactive-read.event-loop-threads:2}") int eventLoopThreads) {
+        HandlerStrategies strategies = HandlerStrategies.builder()
+                .codecs(codecs -> codecs.defaultCodecs().jackson2JsonEncoder(new Jackson2JsonEncoder(objectMapper)))
+                .webFilter(new ReactiveJwtFilter(jwtUtil))
+                .build();
+        this.httpHandler = RouterFunctions.toHttpHandler(handler.routes(), strategies);
+        this.port = port;
+        this.eventLoopThreads = eventLoopThreads;
+    }
+
+    @Override
+    public void start() {
+        loopResources = LoopResources.create("reactive-read", 1, eventLoopThreads, true);
+        NettyReactiveWebServerFactory factory = new NettyReactiveWebServerFactory(port);
+        factory.addServerCustomizers(server -> server.runOn(loopResources));
+        webServer = factory.getWebServer(httpHandler);
+        webServer.start();
+        log.info("Reactive read server started on port {} with {} event-loop threads", webServer.getPort(), eventLoopThreads);
+    }
+
+    @Override
+    public void stop() {
+        if (webServer != null) {
+            webServer.stop();
+            webServer = null;
+        }
+        if (loopResources != null) {
+            loopResources.disposeLater().block();
+            loopResources = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return webServer != null;
+    }
+}
@@ -1,10 +1,56 @@
 package com.siddardha.redisDemonstration.Repository;
 
 import com.siddardha.redisDemonstration.Model.Employee;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
-public interface EmployeeRepository extends JpaRepository<Employee, Long> {
+public interface EmployeeRepository extends JpaRepository<Employee, Long>, EmployeeRepositoryCustom {
+
+    int EXPORT_FETCH_SIZE = 500;
+
     boolean existsByEmployeeId(String employeeId);
+
+    // set-based duplicate check for bulk imports
+    @Query("select e.employeeId from Employee e where e.employeeId in :employeeIds")
+    List<String> findExistingEmployeeIds(@Param("employeeIds") Collection<String> employeeIds);
+
+    // keyset page: rows strictly after the cursor, walking the primary key index
+    List<Employee> findByIdGreaterThanOrderByIdAsc(Long afterId, Limit limit);
+
+    // server-side cursor for exports: rows are fetched in chunks, must be consumed inside a transaction
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + EXPORT_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select e from Employee e order by e.id")
+    Stream<Employee> streamAllOrderById();
+
+    // ids only, for rebuilding the employee id filter
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + EXPORT_FETCH_SIZE))
+    @Query("select e.id from Employee e")
+    Stream<Long> streamAllIds();
+
+    // single-statement deletes (no load first); the row count tells whether there was such a row
+    @Transactional
+    @Modifying
+    @Query("delete from Employee e where e.id = :id")
+    int deleteRowById(@Param("id") Long id);
+
+    @Transactional
+    @Modifying
+    @Query("delete from Employee e where e.id = :id and e.version = :version")
+    int deleteRowByIdAndVersion(@Param("id") Long id, @Param("version") Long version);
 }
@@ -0,0 +1,16 @@
+package com.siddardha.redisDemonstration.Repository;
+
+import com.siddardha.redisDemonstration.Model.Employee;
+
+import java.util.Optional;
+
+public interface EmployeeRepositoryCustom {
+
+    /**
+     * Sets the non-null columns of one employee and bumps its version in a single UPDATE that also returns the
+     * updated row, so there is no read before the write and no dirty checking.
+     * @param expectedVersion only update if the row is at this version; null for any version
+     * @return the row as updated, empty if no row has this id (and version)
+     */
+    Optional<Employee> updateReturning(Long id, String name, String role, Double salary, Long expectedVersion);
+}
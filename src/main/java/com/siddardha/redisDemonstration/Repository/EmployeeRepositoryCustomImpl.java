@@ -0,0 +1,91 @@
+package com.siddardha.redisDemonstration.Repository;
+
+import com.siddardha.redisDemonstration.Model.Employee;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Single-statement employee updates, written in the dialect of the database:
+ * - PostgreSQL: UPDATE ... RETURNING
+ * - H2: SELECT ... FROM FINAL TABLE (UPDATE ...)
+ * - anything else: the UPDATE and a SELECT of the row in one transaction (the row stays locked in between).
+ */
+public class EmployeeRepositoryCustomImpl implements EmployeeRepositoryCustom {
+
+    private static final String COLUMNS = "id, employee_id, name, role, salary, version";
+
+    private static final RowMapper<Employee> ROW_MAPPER = (rs, rowNum) -> new Employee(
+            rs.getLong("id"),
+            rs.getString("employee_id"),
+            rs.getString("name"),
+            rs.getString("role"),
+            rs.getObject("salary", Double.class),
+            rs.getObject("version", Long.class));
+
+    private enum Dialect { POSTGRESQL, H2, OTHER }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Dialect dialect;
+
+    public EmployeeRepositoryCustomImpl(DataSource dataSource, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.dialect = dialectOf(dataSource);
+    }
+
+    private static Dialect dialectOf(DataSource dataSource) {
+        try {
+            String product = JdbcUtils.extractDatabaseMetaData(dataSource, "getDatabaseProductName");
+            if ("PostgreSQL".equalsIgnoreCase(product)) {
+                return Dialect.POSTGRESQL;
+            }
+            return "H2".equalsIgnoreCase(product) ? Dialect.H2 : Dialect.OTHER;
+        } catch (MetaDataAccessException ex) {
+            return Dialect.OTHER;
+        }
+    }
+
+    @Override
+    public Optional<Employee> updateReturning(Long id, String name, String role, Double salary, Long expectedVersion) {
+        StringBuilder update = new StringBuilder("update employee set version = version + 1");
+        List<Object> args = new ArrayList<>(6);
+        if (name != null) {
+            update.append(", name = ?");
+            args.add(name);
+        }
+        if (role != null) {
+            update.append(", role = ?");
+            args.add(role);
+        }
+        if (salary != null) {
+            update.append(", salary = ?");
+            args.add(salary);
+        }
+        update.append(" where id = ?");
+        args.add(id);
+        if (expectedVersion != null) {
+            update.append(" and version = ?");
+            args.add(expectedVersion);
+        }
+
+        List<Employee> rows = switch (dialect) {
+            case POSTGRESQL -> jdbcTemplate.query(update + " returning " + COLUMNS, ROW_MAPPER, args.toArray());
+            case H2 -> jdbcTemplate.query("select " + COLUMNS + " from final table (" + update + ")", ROW_MAPPER,
+                    args.toArray());
+            case OTHER -> transactionTemplate.execute(status -> jdbcTemplate.update(update.toString(), args.toArray()) == 0
+                    ? List.<Employee>of()
+                    : jdbcTemplate.query("select " + COLUMNS + " from employee where id = ?", ROW_MAPPER, id));
+        };
+        return rows == null || rows.isEmpty() ? Optional.empty() : Optional.of(rows.get(0));
+    }
+}
@@ -39,7 +39,7 @@ public class CustomUserDetailsService implements UserDetailsService {
                         .collect(Collectors.toList()))
                 .build();
         
-        logger.info("UserDetails created successfully for: {}", username);
+        logger.debug("UserDetails created successfully for: {}", username);
         return userDetails;
     }
 }
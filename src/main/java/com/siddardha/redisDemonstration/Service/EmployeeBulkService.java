@@ -0,0 +1,214 @@
+package com.siddardha.redisDemonstration.Service;
+
+import com.siddardha.redisDemonstration.Cache.EmployeeIdFilter;
+import com.siddardha.redisDemonstration.Cache.EmployeePageCache;
+import com.siddardha.redisDemonstration.Cache.EmployeeSearchIndex;
+import com.siddardha.redisDemonstration.DTO.BulkInsertResponse;
+import com.siddardha.redisDemonstration.DTO.BulkRowError;
+import com.siddardha.redisDemonstration.DTO.EmployeeRequest;
+import com.siddardha.redisDemonstration.Model.Employee;
+import com.siddardha.redisDemonstration.Repository.EmployeeRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk employee import.
+ * - Rows are validated up front; duplicates (inside the upload and against the DB) are found with set-based queries.
+ * - Valid rows are inserted in chunks, one transaction per chunk, flushed as JDBC batches.
+ * - A failing chunk is retried row by row so a bad row never fails the rest of the upload.
+ */
+@Service
+public class EmployeeBulkService {
+
+    private static final Logger log = LoggerFactory.getLogger(EmployeeBulkService.class);
+
+    // keeps the IN (...) list of the duplicate check well below driver/database parameter limits
+    private static final int LOOKUP_CHUNK_SIZE = 1000;
+
+    private final EmployeeRepository employeeRepository;
+    private final EmployeePageCache employeePageCache;
+    private final EmployeeIdFilter employeeIdFilter;
+    private final EmployeeSearchIndex employeeSearchIndex;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final int chunkSize;
+    private final int jdbcBatchSize;
+    private final int maxRows;
+
+    public EmployeeBulkService(EmployeeRepository employeeRepository,
+                               EmployeePageCache employeePageCache,
+                               EmployeeIdFilter employeeIdFilter,
+                               EmployeeSearchIndex employeeSearchIndex,
+                               EntityManager entityManager,
+                               PlatformTransactionManager transactionManager,
+                               Validator validator,
+                               @Value("${employees.bulk.chunk-size:1000}") int chunkSize,
+                               @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}") int jdbcBatchSize,
+                               @Value("${employees.bulk.max-rows:100000}") int maxRows) {
+        this.employeeRepository = employeeRepository;
+        this.employeePageCache = employeePageCache;
+        this.employeeIdFilter = employeeIdFilter;
+        this.employeeSearchIndex = employeeSearchIndex;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.validator = validator;
+        this.chunkSize = chunkSize;
+        this.jdbcBatchSize = jdbcBatchSize;
+        this.maxRows = maxRows;
+    }
+
+    public BulkInsertResponse importEmployees(List<EmployeeRequest> rows) {
+        if (rows == null || rows.isEmpty()) {
+            throw new IllegalArgumentException("No employees to import");
+        }
+        if (rows.size() > maxRows) {
+            throw new IllegalArgumentException("Too many rows: " + rows.size() + " (max " + maxRows + ")");
+        }
+        BulkInsertResponse response = new BulkInsertResponse();
+        response.setReceived(rows.size());
+
+        List<Integer> candidates = validate(rows, response);
+        Set<String> existing = findExisting(rows, candidates);
+
+        List<Integer> pending = new ArrayList<>(Math.min(chunkSize, candidates.size()));
+        for (int index : candidates) {
+            EmployeeRequest row = rows.get(index);
+            if (existing.contains(row.getEmployeeId())) {
+                reject(response, index, row, "Employee already exists with employeeId: " + row.getEmployeeId());
+                continue;
+            }
+            pending.add(index);
+            if (pending.size() == chunkSize) {
+                insertChunk(rows, pending, response);
+                pending.clear();
+            }
+        }
+        if (!pending.isEmpty()) {
+            insertChunk(rows, pending, response);
+        }
+
+        response.setFailed(response.getErrors().size());
+        log.info("Bulk import: received={}, inserted={}, failed={}",
+                response.getReceived(), response.getInserted(), response.getFailed());
+        return response;
+    }
+
+    // bean validation + duplicates inside the upload; returns the indexes of the rows worth inserting
+    private List<Integer> validate(List<EmployeeRequest> rows, BulkInsertResponse response) {
+        List<Integer> candidates = new ArrayList<>(rows.size());
+        Map<String, Integer> firstRowByEmployeeId = new HashMap<>();
+        for (int i = 0; i < rows.size(); i++) {
+            EmployeeRequest row = rows.get(i);
+            if (row == null) {
+                reject(response, i, null, "Row is empty");
+                continue;
+            }
+            Set<ConstraintViolation<EmployeeRequest>> violations = validator.validate(row);
+            if (!violations.isEmpty()) {
+                reject(response, i, row, violations.stream()
+                        .map(ConstraintViolation::getMessage)
+                        .sorted()
+                        .collect(Collectors.joining("; ")));
+                continue;
+            }
+            Integer first = firstRowByEmployeeId.putIfAbsent(row.getEmployeeId(), i);
+            if (first != null) {
+                reject(response, i, row, "Duplicate employeeId in upload, first seen at row " + (first + 1));
+                continue;
+            }
+            candidates.add(i);
+        }
+        return candidates;
+    }
+
+    private Set<String> findExisting(List<EmployeeRequest> rows, List<Integer> candidates) {
+        Set<String> existing = new HashSet<>();
+        List<String> ids = new ArrayList<>(LOOKUP_CHUNK_SIZE);
+        for (int index : candidates) {
+            ids.add(rows.get(index).getEmployeeId());
+            if (ids.size() == LOOKUP_CHUNK_SIZE) {
+                existing.addAll(employeeRepository.findExistingEmployeeIds(ids));
+                ids.clear();
+            }
+        }
+        if (!ids.isEmpty()) {
+            existing.addAll(employeeRepository.findExistingEmployeeIds(ids));
+        }
+        return existing;
+    }
+
+    private void insertChunk(List<EmployeeRequest> rows, List<Integer> chunk, BulkInsertResponse response) {
+        List<Employee> saved;
+        try {
+            saved = transactionTemplate.execute(status -> persist(rows, chunk));
+        } catch (RuntimeException ex) {
+            log.warn("Bulk chunk of {} rows failed ({}), retrying row by row", chunk.size(), ex.getMessage());
+            saved = new ArrayList<>();
+            for (int index : chunk) {
+                try {
+                    saved.addAll(transactionTemplate.execute(status -> persist(rows, List.of(index))));
+                } catch (RuntimeException rowEx) {
+                    reject(response, index, rows.get(index), "Insert failed: " + rowEx.getMessage());
+                }
+            }
+        }
+        if (saved == null || saved.isEmpty()) {
+            return;
+        }
+        response.setInserted(response.getInserted() + saved.size());
+        // one eviction per chunk: the pages overlapping [minId, maxId] cover every new id. Ids are not necessarily at
+        // the tail (each node pre-allocates sequence blocks of 50, so nodes interleave), only the range matters
+        long minId = Long.MAX_VALUE;
+        long maxId = Long.MIN_VALUE;
+        List<Long> ids = new ArrayList<>(saved.size());
+        for (Employee emp : saved) {
+            minId = Math.min(minId, emp.getId());
+            maxId = Math.max(maxId, emp.getId());
+            ids.add(emp.getId());
+        }
+        employeePageCache.evictPagesCovering(minId, maxId);
+        employeeIdFilter.addedAll(ids);
+        employeeSearchIndex.indexedAll(saved);
+    }
+
+    private List<Employee> persist(List<EmployeeRequest> rows, List<Integer> chunk) {
+        List<Employee> saved = new ArrayList<>(chunk.size());
+        for (int index : chunk) {
+            EmployeeRequest row = rows.get(index);
+            Employee emp = new Employee();
+            emp.setEmployeeId(row.getEmployeeId());
+            emp.setName(row.getName());
+            emp.setRole(row.getRole());
+            emp.setSalary(row.getSalary());
+            entityManager.persist(emp);
+            saved.add(emp);
+            if (saved.size() % jdbcBatchSize == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+        return saved;
+    }
+
+    private static void reject(BulkInsertResponse response, int index, EmployeeRequest row, String message) {
+        response.getErrors().add(new BulkRowError(index + 1, row != null ? row.getEmployeeId() : null, message));
+    }
+}
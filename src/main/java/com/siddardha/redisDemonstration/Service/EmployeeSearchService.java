@@ -0,0 +1,164 @@
+package com.siddardha.redisDemonstration.Service;
+
+import com.siddardha.redisDemonstration.Cache.EmployeeSearchIndex;
+import com.siddardha.redisDemonstration.DTO.EmployeeSearchResponse;
+import com.siddardha.redisDemonstration.Mapper.EmployeeMapper;
+import com.siddardha.redisDemonstration.Model.Employee;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Employee search by role, name prefix and salary range.
+ * - Answered from the Redis secondary index (EmployeeSearchIndex): the index picks the ids, the employees come
+ *   from the cache (one MGET, misses from one findAllById) and are checked against the filters again.
+ * - While the index is not usable the same query runs on the database, on the employee table indexes.
+ * - Results are ordered by salary (by name when only a name prefix is given); offset paging, limit capped at
+ *   employees.search.max-limit, offset at employees.search.max-offset.
+ */
+@Service
+public class EmployeeSearchService {
+
+    private final EmployeeSearchIndex employeeSearchIndex;
+    private final EmployeeService employeeService;
+    private final EntityManager entityManager;
+    private final int defaultLimit;
+    private final int maxLimit;
+    private final int maxOffset;
+    private final Counter fromIndex;
+    private final Counter fromDatabase;
+
+    public EmployeeSearchService(EmployeeSearchIndex employeeSearchIndex,
+                                 EmployeeService employeeService,
+                                 EntityManager entityManager,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${employees.search.default-limit:50}") int defaultLimit,
+                                 @Value("${employees.search.max-limit:200}") int maxLimit,
+                                 @Value("${employees.search.max-offset:10000}") int maxOffset) {
+        this.employeeSearchIndex = employeeSearchIndex;
+        this.employeeService = employeeService;
+        this.entityManager = entityManager;
+        this.defaultLimit = defaultLimit;
+        this.maxLimit = maxLimit;
+        this.maxOffset = maxOffset;
+        this.fromIndex = searches(meterRegistry, "index");
+        this.fromDatabase = searches(meterRegistry, "database");
+    }
+
+    private static Counter searches(MeterRegistry registry, String source) {
+        return Counter.builder("employee.search")
+                .description("Employee searches, by what answered them")
+                .tag("source", source)
+                .register(registry);
+    }
+
+    @Transactional(readOnly = true)
+    public EmployeeSearchResponse search(String role, String namePrefix, Double minSalary, Double maxSalary,
+                                         Integer offset, Integer limit) {
+        String roleFilter = blankToNull(role);
+        String nameFilter = blankToNull(namePrefix);
+        int from = offset == null ? 0 : offset;
+        int size = limit == null ? defaultLimit : Math.min(limit, maxLimit);
+        if (from < 0 || from > maxOffset) {
+            throw new IllegalArgumentException("offset must be between 0 and " + maxOffset);
+        }
+        if (size < 1) {
+            throw new IllegalArgumentException("limit must be at least 1");
+        }
+        if (minSalary != null && maxSalary != null && minSalary > maxSalary) {
+            throw new IllegalArgumentException("minSalary must not be greater than maxSalary");
+        }
+
+        // one extra match tells whether there is a next page
+        Optional<List<Long>> ids = employeeSearchIndex.search(roleFilter, nameFilter, minSalary, maxSalary, from, size + 1);
+        List<Employee> matches;
+        String source;
+        if (ids.isPresent()) {
+            Map<Long, Employee> employees = employeeService.getEmployees(ids.get());
+            matches = new ArrayList<>(ids.get().size());
+            for (Long id : ids.get()) {
+                Employee emp = employees.get(id);
+                if (emp != null && matches(emp, roleFilter, nameFilter, minSalary, maxSalary)) {
+                    matches.add(emp);
+                }
+            }
+            source = "index";
+            fromIndex.increment();
+        } else {
+            matches = query(roleFilter, nameFilter, minSalary, maxSalary, from, size + 1);
+            source = "database";
+            fromDatabase.increment();
+        }
+
+        // the index may have returned a match the cache no longer agrees with: hasNext follows the index
+        boolean hasNext = ids.map(found -> found.size() > size).orElse(matches.size() > size);
+        EmployeeSearchResponse response = new EmployeeSearchResponse();
+        matches.stream().limit(size).map(EmployeeMapper::mapToResponse).forEach(response.getContent()::add);
+        response.setHasNext(hasNext);
+        response.setNextOffset(hasNext ? from + size : null);
+        response.setLimit(size);
+        response.setSource(source);
+        return response;
+    }
+
+    private static boolean matches(Employee emp, String role, String namePrefix, Double minSalary, Double maxSalary) {
+        if (role != null && !role.equals(emp.getRole())) {
+            return false;
+        }
+        if (namePrefix != null && (emp.getName() == null || !emp.getName().startsWith(namePrefix))) {
+            return false;
+        }
+        if (minSalary != null && (emp.getSalary() == null || emp.getSalary() < minSalary)) {
+            return false;
+        }
+        return maxSalary == null || (emp.getSalary() != null && emp.getSalary() <= maxSalary);
+    }
+
+    // only the given filters become predicates, so the planner can pick the matching index
+    private List<Employee> query(String role, String namePrefix, Double minSalary, Double maxSalary, int offset, int count) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Employee> query = cb.createQuery(Employee.class);
+        Root<Employee> emp = query.from(Employee.class);
+        List<Predicate> where = new ArrayList<>();
+        if (role != null) {
+            where.add(cb.equal(emp.get("role"), role));
+        }
+        if (namePrefix != null) {
+            where.add(cb.like(emp.get("name"), escapeLike(namePrefix) + "%", '\\'));
+        }
+        if (minSalary != null) {
+            where.add(cb.ge(emp.get("salary"), minSalary));
+        }
+        if (maxSalary != null) {
+            where.add(cb.le(emp.get("salary"), maxSalary));
+        }
+        boolean byName = namePrefix != null && role == null && minSalary == null && maxSalary == null;
+        query.select(emp)
+                .where(where.toArray(Predicate[]::new))
+                .orderBy(cb.asc(emp.get(byName ? "name" : "salary")), cb.asc(emp.get("id")));
+        return entityManager.createQuery(query)
+                .setFirstResult(offset)
+                .setMaxResults(count)
+                .getResultList();
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value;
+    }
+}
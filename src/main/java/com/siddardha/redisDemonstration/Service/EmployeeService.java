@@ -1,53 +1,336 @@
 package com.siddardha.redisDemonstration.Service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.siddardha.redisDemonstration.Cache.EmployeeHotKeys;
+import com.siddardha.redisDemonstration.Cache.EmployeeIdFilter;
+import com.siddardha.redisDemonstration.Cache.EmployeeSearchIndex;
+import com.siddardha.redisDemonstration.Cache.FieldUpdatableCache;
+import com.siddardha.redisDemonstration.Cache.EmployeePageCache;
+import com.siddardha.redisDemonstration.Cache.RedisCacheBatch;
+import com.siddardha.redisDemonstration.Cache.RedisCacheLayout;
+import com.siddardha.redisDemonstration.Cache.RedisHashCache;
+import com.siddardha.redisDemonstration.Cache.ResponseBodyCache;
+import com.siddardha.redisDemonstration.Cache.TwoTierCacheManager;
+import com.siddardha.redisDemonstration.DTO.EmployeeBatchGetResponse;
+import com.siddardha.redisDemonstration.DTO.EmployeeBatchGetResult;
+import com.siddardha.redisDemonstration.DTO.EmployeePageResponse;
 import com.siddardha.redisDemonstration.DTO.EmployeePartialUpdateRequest;
 import com.siddardha.redisDemonstration.DTO.EmployeeRequest;
+import com.siddardha.redisDemonstration.DTO.EmployeeResponse;
 import com.siddardha.redisDemonstration.Exception.EmployeeAlreadyExistsException;
 import com.siddardha.redisDemonstration.Exception.EmployeeNotFoundException;
+import com.siddardha.redisDemonstration.Exception.EmployeeVersionConflictException;
+import com.siddardha.redisDemonstration.Mapper.EmployeeMapper;
 import com.siddardha.redisDemonstration.Model.Employee;
 import com.siddardha.redisDemonstration.Repository.EmployeeRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.persistence.EntityManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.CachePut;
-import org.springframework.cache.annotation.Cacheable;
-import org.springframework.cache.annotation.Caching;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
 
 
 @Service
 public class EmployeeService {
     private static final Logger log  = LoggerFactory.getLogger(EmployeeService.class);
 
+    private static final Set<String> PROJECTABLE_FIELDS = new LinkedHashSet<>(
+            List.of("id", "employeeId", "name", "role", "salary", "version"));
+
     private final EmployeeRepository employeeRepository;
     private final RedisTemplate<String, Object> redisTemplate;
+    private final EmployeePageCache employeePageCache;
+    private final EmployeeIdFilter employeeIdFilter;
+    private final EmployeeSearchIndex employeeSearchIndex;
+    private final EmployeeHotKeys employeeHotKeys;
+    private final EmployeeWriteBehindService writeBehind;
+    private final CacheManager cacheManager;
+    // ids recently looked up and not found, so repeated probes skip Redis and the database
+    private final com.github.benmanes.caffeine.cache.Cache<Long, Boolean> recentlyNotFound;
+    private final RedisCacheBatch employeeCacheBatch;
+    // the employee cache's Redis tier if it is laid out as hashes (cache.codecs.employee=hash), otherwise null
+    private final RedisHashCache employeeHashCache;
+    private final ResponseBodyCache responseBodies;
+    private final RedisCacheLayout pageLayout;
+    private final EntityManager entityManager;
+    private final ObjectWriter exportWriter;
+    private final int defaultPageSize;
+    private final int maxPageSize;
+    private final int maxBatchIds;
+    private final Counter batchFromCache;
+    private final Counter batchFromDatabase;
+    private final Counter batchNotFound;
 
-    public EmployeeService(EmployeeRepository employeeRepository, RedisTemplate<String, Object> redisTemplate) {
+    public EmployeeService(EmployeeRepository employeeRepository,
+                           RedisTemplate<String, Object> redisTemplate,
+                           EmployeePageCache employeePageCache,
+                           EmployeeIdFilter employeeIdFilter,
+                           EmployeeSearchIndex employeeSearchIndex,
+                           EmployeeHotKeys employeeHotKeys,
+                           EmployeeWriteBehindService writeBehind,
+                           CacheManager cacheManager,
+                           RedisCacheManager redisCacheManager,
+                           StringRedisTemplate stringRedisTemplate,
+                           ResponseBodyCache responseBodies,
+                           EntityManager entityManager,
+                           ObjectMapper objectMapper,
+                           MeterRegistry meterRegistry,
+                           @Value("${employees.page.default-size:50}") int defaultPageSize,
+                           @Value("${employees.page.max-size:200}") int maxPageSize,
+                           @Value("${employees.batch-get.max-ids:200}") int maxBatchIds,
+                           @Value("${employees.not-found.ttl:10s}") Duration notFoundTtl,
+                           @Value("${employees.not-found.maximum-size:10000}") long notFoundMaximumSize) {
         this.employeeRepository=employeeRepository;
         this.redisTemplate = redisTemplate;
+        this.employeePageCache = employeePageCache;
+        this.employeeIdFilter = employeeIdFilter;
+        this.employeeSearchIndex = employeeSearchIndex;
+        this.employeeHotKeys = employeeHotKeys;
+        this.writeBehind = writeBehind;
+        this.cacheManager = cacheManager;
+        this.recentlyNotFound = Caffeine.newBuilder()
+                .maximumSize(notFoundMaximumSize)
+                .expireAfterWrite(notFoundTtl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, recentlyNotFound, "employee.not-found");
+        RedisCacheLayout employeeLayout = RedisCacheLayout.of(redisCacheManager, "employee");
+        this.employeeCacheBatch = new RedisCacheBatch(employeeLayout, stringRedisTemplate);
+        this.employeeHashCache = employeeLayout.hashCache();
+        this.responseBodies = responseBodies;
+        this.pageLayout = RedisCacheLayout.of(redisCacheManager, EmployeePageCache.CACHE_NAME);
+        this.entityManager = entityManager;
+        this.exportWriter = objectMapper.writerFor(EmployeeResponse.class);
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
+        this.maxBatchIds = maxBatchIds;
+        this.batchFromCache = batchIds(meterRegistry, "cache");
+        this.batchFromDatabase = batchIds(meterRegistry, "database");
+        this.batchNotFound = batchIds(meterRegistry, "not-found");
+    }
+
+    private static Counter batchIds(MeterRegistry registry, String source) {
+        return Counter.builder("employee.batch.get.ids")
+                .description("Ids resolved by batch lookups, by where they were found")
+                .tag("source", source)
+                .register(registry);
     }
 
     /**
-     * READ: Cache read-through
-     * - On cache hit → returns cached Employee (method body is skipped).
-     * - On cache miss → executes, returns result, and caches it under employees::id.
+     * READ: Cache read-through, unknown ids rejected before they reach the database
+     * - On cache hit → returns cached Employee.
+     * - On cache miss → ids recently not found (employees.not-found.ttl, this node only) and ids missing from
+     *   the id filter are rejected; otherwise the row is loaded once and cached under employee::id.
+     * - Only a not-found the database confirmed is remembered: a filter miss may be an id whose bit is not set
+     *   yet (a create still in progress), and must not hide the row once it is.
+     * - Hits go through the same Cache.get(key, loader) call as misses: that is where the cache refreshes hot
+     *   entries ahead of expiry (StampedeProtectedCache), so the filter is checked in the loader.
      */
-    @Cacheable(cacheNames = "employee", key = "#id")
     public Employee getEmployee(Long id) {
-        log.info("Fetching employee with id: " + id);
-        // Simulate database lookup - throw exception if not found
         if (id == null) {
             throw new IllegalArgumentException("ID must not be null");
         }
-     return employeeRepository.findById(id)
-             .orElseThrow(()-> new EmployeeNotFoundException("Employee not found with id: " + id));
+        if (recentlyNotFound.getIfPresent(id) != null) {
+            throw notFound(id);
+        }
+        Cache employeeCache = cacheManager.getCache("employee");
+        try {
+            Employee emp = employeeCache.get(id, () -> loadEmployee(id));
+            employeeHotKeys.recordAccess(id);
+            return emp;
+        } catch (Cache.ValueRetrievalException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+
+    /**
+     * READ: getEmployee as a rendered JSON body (see ResponseBodyCache)
+     * - Rendered once per cached instance: while the near cache holds the entry, repeated reads reuse the bytes.
+     */
+    public ResponseBodyCache.Body getEmployeeBody(Long id) {
+        return responseBodies.render(getEmployee(id));
+    }
+
+    private Employee loadEmployee(Long id) {
+        EmployeeIdFilter.Membership membership = employeeIdFilter.check(id);
+        if (membership == EmployeeIdFilter.Membership.ABSENT) {
+            throw notFound(id);
+        }
+        log.debug("Fetching employee with id: {}", id);
+        // write-behind: the row may not have caught up with the queued updates yet
+        Employee emp = writeBehind.isEnabled() ? writeBehind.queuedState(id) : null;
+        if (emp != null) {
+            return emp;
+        }
+        emp = employeeRepository.findById(id).orElse(null);
+        if (emp == null) {
+            if (membership == EmployeeIdFilter.Membership.PRESENT) {
+                employeeIdFilter.recordFalsePositive();
+            }
+            recentlyNotFound.put(id, Boolean.TRUE);
+            throw notFound(id);
+        }
+        return emp;
     }
 
+    private static EmployeeNotFoundException notFound(Long id) {
+        return new EmployeeNotFoundException("Employee not found with id: " + id);
+    }
+
+    /**
+     * READ: Projection, the given fields of one employee in the requested order
+     * - With the hash cache layout the fields come from one HMGET on the cached entry, without decoding the rest.
+     * - Otherwise, and on a miss, from the regular lookup (getEmployee).
+     */
+    public Map<String, Object> getEmployeeFields(Long id, List<String> fields) {
+        if (id == null) {
+            throw new IllegalArgumentException("ID must not be null");
+        }
+        for (String field : fields) {
+            if (!PROJECTABLE_FIELDS.contains(field)) {
+                throw new IllegalArgumentException("Unknown field '" + field + "', expected one of " + PROJECTABLE_FIELDS);
+            }
+        }
+        Employee emp = null;
+        if (employeeHashCache != null && recentlyNotFound.getIfPresent(id) == null && redisTierCurrent("employee")) {
+            // id is set in every entry, so asking for it tells an entry from a miss
+            Set<String> read = new LinkedHashSet<>(fields);
+            read.add("id");
+            try {
+                emp = (Employee) employeeHashCache.getFields(id, read);
+            } catch (RuntimeException ex) {
+                log.debug("HMGET of employee {} failed: {}", id, ex.getMessage());
+            }
+            if (emp != null) {
+                employeeHotKeys.recordAccess(id);
+            }
+        }
+        if (emp == null) {
+            emp = getEmployee(id);
+        }
+        Map<String, Object> projection = new LinkedHashMap<>();
+        for (String field : fields) {
+            projection.put(field, switch (field) {
+                case "id" -> emp.getId();
+                case "employeeId" -> emp.getEmployeeId();
+                case "name" -> emp.getName();
+                case "role" -> emp.getRole();
+                case "salary" -> emp.getSalary();
+                default -> emp.getVersion();
+            });
+        }
+        return projection;
+    }
+
+
+    /**
+     * READ: Batch lookup
+     * - Cached employees for all ids come from one MGET on employee::<id>, the misses from one findAllById;
+     *   loaded rows are back-filled into the cache in one pipeline.
+     * - Results follow the request order; ids without an employee are reported inline as not found.
+     */
+    public EmployeeBatchGetResponse batchGetEmployees(List<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            throw new IllegalArgumentException("ids must contain at least one id");
+        }
+        if (ids.size() > maxBatchIds) {
+            throw new IllegalArgumentException("Too many ids: " + ids.size() + " (max " + maxBatchIds + ")");
+        }
+        Set<Long> distinct = new LinkedHashSet<>();
+        for (Long id : ids) {
+            if (id == null) {
+                throw new IllegalArgumentException("ids must not contain null");
+            }
+            distinct.add(id);
+        }
+
+        Map<Long, Employee> employees = getEmployees(distinct);
+
+        EmployeeBatchGetResponse response = new EmployeeBatchGetResponse();
+        for (Long id : ids) {
+            Employee emp = employees.get(id);
+            response.getResults().add(new EmployeeBatchGetResult(id, emp != null, emp != null ? EmployeeMapper.mapToResponse(emp) : null));
+        }
+        response.setFound((int) response.getResults().stream().filter(EmployeeBatchGetResult::isFound).count());
+        response.setNotFound(ids.size() - response.getFound());
+        return response;
+    }
+
+    /**
+     * Employees of the given ids that exist, from one MGET plus one findAllById for the misses
+     * (back-filled into the cache). Ids recently not found are skipped.
+     */
+    public Map<Long, Employee> getEmployees(Collection<Long> ids) {
+        List<Long> lookup = ids.stream().filter(id -> recentlyNotFound.getIfPresent(id) == null).toList();
+        Map<Long, Employee> employees = new HashMap<>();
+        if (redisTierCurrent("employee")) {
+            employeeCacheBatch.getAll(lookup).forEach((id, value) -> {
+                if (value instanceof Employee emp) {
+                    employees.put(id, emp);
+                }
+            });
+        }
+        batchFromCache.increment(employees.size());
+
+        List<Long> misses = lookup.stream().filter(id -> !employees.containsKey(id)).toList();
+        if (!misses.isEmpty() && writeBehind.isEnabled()) {
+            // write-behind: queued states are ahead of the rows (a deleted employee maps to null)
+            Map<Long, Employee> queued = writeBehind.queuedStates(misses);
+            queued.forEach((id, emp) -> {
+                if (emp != null) {
+                    employees.put(id, emp);
+                }
+            });
+            misses = misses.stream().filter(id -> !queued.containsKey(id)).toList();
+        }
+        if (!misses.isEmpty()) {
+            Map<Long, Employee> loaded = new HashMap<>();
+            for (Employee emp : employeeRepository.findAllById(misses)) {
+                loaded.put(emp.getId(), emp);
+            }
+            employeeCacheBatch.putAllIfAbsent(loaded);
+            employees.putAll(loaded);
+            batchFromDatabase.increment(loaded.size());
+            for (Long id : misses) {
+                if (!loaded.containsKey(id)) {
+                    recentlyNotFound.put(id, Boolean.TRUE);
+                }
+            }
+        }
+        batchNotFound.increment(ids.size() - employees.size());
+        return employees;
+    }
 
-    @CacheEvict(cacheNames = "employees", allEntries = true)
     public Employee addEmployee(EmployeeRequest employeeRequest) {
         if(employeeRepository.existsByEmployeeId(employeeRequest.getEmployeeId())) {
             throw new EmployeeAlreadyExistsException("Employee already exists with employeeId: " + employeeRequest.getEmployeeId());
@@ -58,63 +341,200 @@ public class EmployeeService {
         emp.setName(employeeRequest.getName());
         emp.setRole(employeeRequest.getRole());
         emp.setSalary(employeeRequest.getSalary());
-        return employeeRepository.save(emp);
+        Employee saved = employeeRepository.save(emp);
+        employeeIdFilter.added(saved.getId());
+        employeeSearchIndex.indexed(saved);
+        recentlyNotFound.invalidate(saved.getId());
+        // the page whose range holds the new id: not necessarily the tail one, as nodes pre-allocate sequence
+        // blocks of 50 and their ids interleave
+        employeePageCache.evictPagesCovering(saved.getId(), saved.getId());
+        return saved;
+    }
+
+    /**
+     * READ: Keyset pagination
+     * - Returns up to size employees with id > afterId, ordered by id (size is capped at employees.page.max-size).
+     * - Each page is cached on its own under employees::page:<afterId>:<size>.
+     */
+    public EmployeePageResponse getEmployeePage(Long afterId, Integer size) {
+        long cursor = pageCursor(afterId);
+        int boundedSize = pageSize(size);
+        return employeePageCache.get(cursor, boundedSize, () -> loadEmployeePage(cursor, boundedSize));
     }
 
-    @Cacheable(cacheNames = "employees", key = "'all-employees'")
-    public List<Employee> getAllEmployees() {
-        List<Employee> allEmployees = employeeRepository.findAll();
-        if(allEmployees.isEmpty()) {
-            throw new EmployeeNotFoundException("No Employees Present");
+    /**
+     * READ: getEmployeePage as a rendered JSON body (see ResponseBodyCache)
+     * - A cached page whose stored bytes this node has rendered before is answered without decoding them, and
+     *   refreshed ahead of expiry as a hit through the page cache would be.
+     * - Otherwise the page is read (or loaded) through the page cache and rendered.
+     */
+    public ResponseBodyCache.Body getEmployeePageBody(Long afterId, Integer size) {
+        long cursor = pageCursor(afterId);
+        int boundedSize = pageSize(size);
+        ResponseBodyCache.Body body = redisTierCurrent(EmployeePageCache.CACHE_NAME)
+                ? responseBodies.renderStored(pageLayout, EmployeePageCache.pageKey(cursor, boundedSize))
+                : null;
+        if (body != null) {
+            employeePageCache.refreshIfDue(cursor, boundedSize, () -> loadEmployeePage(cursor, boundedSize));
+            return body;
         }
-       return allEmployees;
+        return responseBodies.render(employeePageCache.get(cursor, boundedSize, () -> loadEmployeePage(cursor, boundedSize)));
     }
 
+    // direct reads of the Redis entries skip FailOpenCache: not while they may be outdated after an outage
+    private boolean redisTierCurrent(String cacheName) {
+        return !(cacheManager instanceof TwoTierCacheManager twoTier) || twoTier.isRedisTierCurrent(cacheName);
+    }
 
-    @Caching(
-            put = { @CachePut(cacheNames = "employee", key = "#id") },
-            evict =  {@CacheEvict(cacheNames = "employees", allEntries = true) }
-    )
-    public Employee partialUpdateEmployee(Long id, EmployeePartialUpdateRequest employeeRequest) {
+    private static long pageCursor(Long afterId) {
+        long cursor = afterId == null ? 0L : afterId;
+        if (cursor < 0) {
+            throw new IllegalArgumentException("afterId must not be negative");
+        }
+        return cursor;
+    }
+
+    private int pageSize(Integer size) {
+        int pageSize = size == null ? defaultPageSize : size;
+        if (pageSize < 1) {
+            throw new IllegalArgumentException("size must be at least 1");
+        }
+        return Math.min(pageSize, maxPageSize);
+    }
 
-       Employee emp = (Employee) employeeRepository.findById(id)
-               .orElseThrow(()-> new EmployeeNotFoundException("There is no employee with this Id :"+id));
+    private EmployeePageResponse loadEmployeePage(long afterId, int size) {
+        // fetch one extra row to know whether there is a next page
+        List<Employee> rows = employeeRepository.findByIdGreaterThanOrderByIdAsc(afterId, Limit.of(size + 1));
+        return EmployeeMapper.mapToPage(rows, size);
+    }
 
-       if(employeeRequest.getName()!=null && !employeeRequest.getName().isBlank()) {
-           emp.setName(employeeRequest.getName());
-       }
-        if(employeeRequest.getRole()!=null && !employeeRequest.getRole().isBlank()) {
-            emp.setRole(employeeRequest.getRole());
+    /**
+     * EXPORT: Streams every employee as one JSON document per line (NDJSON).
+     * - Rows come from a database cursor and are detached once written, so memory stays flat regardless of row count.
+     * - Bypasses the caches on purpose: an export must not evict the hot working set.
+     */
+    @Transactional(readOnly = true)
+    public long exportEmployees(OutputStream out) throws IOException {
+        long written = 0;
+        try (Stream<Employee> rows = employeeRepository.streamAllOrderById()) {
+            Iterator<Employee> it = rows.iterator();
+            while (it.hasNext()) {
+                Employee emp = it.next();
+                out.write(exportWriter.writeValueAsBytes(EmployeeMapper.mapToResponse(emp)));
+                out.write('\n');
+                entityManager.detach(emp);
+                if (++written % EmployeeRepository.EXPORT_FETCH_SIZE == 0) {
+                    out.flush();
+                }
+            }
         }
-        if(employeeRequest.getSalary()!=null) {
-            emp.setSalary(employeeRequest.getSalary());
+        out.flush();
+        log.info("Exported {} employees", written);
+        return written;
+    }
+
+
+    /**
+     * UPDATE: PATCH (the given fields) and PUT (name, role, salary)
+     * - One UPDATE that sets only these columns and returns the new row, which is put in the cache. There is no
+     *   read first, so concurrent updates of different fields do not overwrite each other.
+     * - A PATCH only rewrites the changed fields of the cached entry when the cache is laid out as hashes
+     *   (cache.codecs.employee=hash, see RedisHashCache); a PUT replaces the entry.
+     * - With a version in the request the update only applies if the employee is still at that version,
+     *   otherwise 409 (EmployeeVersionConflictException).
+     * - Write-behind mode: merged into the employee's queued state and queued, in one step per employee (see
+     *   EmployeeWriteBehindService). A state put in the cache after a newer one is evicted again.
+     */
+    public Employee partialUpdateEmployee(Long id, EmployeePartialUpdateRequest employeeRequest) {
+        String name = blankToNull(employeeRequest.getName());
+        String role = blankToNull(employeeRequest.getRole());
+        Double salary = employeeRequest.getSalary();
+        Employee saved = update(id, name, role, salary, employeeRequest.getVersion());
+
+        List<String> changed = new ArrayList<>(4);
+        changed.add("version");
+        if (name != null) {
+            changed.add("name");
         }
-        return employeeRepository.save(emp);
+        if (role != null) {
+            changed.add("role");
+        }
+        if (salary != null) {
+            changed.add("salary");
+        }
+        cacheUpdated(saved, changed);
+        return saved;
     }
 
-    @Caching(
-            put = { @CachePut(cacheNames = "employee", key = "#id") },
-            evict =  {@CacheEvict(cacheNames = "employees", allEntries = true) }
-    )
     public Employee replaceEmployee(Long id, EmployeeRequest request) {
-        Employee emp = employeeRepository.findById(id)
-                .orElseThrow(() -> new EmployeeNotFoundException("No employee with Id: "+id+ "is available . Try updating valid employee"));
+        Employee saved = update(id, request.getName(), request.getRole(), request.getSalary(), request.getVersion());
+        cacheUpdated(saved, null);
+        return saved;
+    }
 
-        emp.setName(request.getName());
-        emp.setRole(request.getRole());
-        emp.setSalary(request.getSalary());
+    /** Puts an updated employee in the cache, only the changed fields if given and the cache supports it. */
+    private void cacheUpdated(Employee saved, List<String> changed) {
+        Cache employeeCache = cacheManager.getCache("employee");
+        if (changed != null && employeeCache instanceof FieldUpdatableCache fields) {
+            fields.putFields(saved.getId(), saved, changed);
+        } else {
+            employeeCache.put(saved.getId(), saved);
+        }
+        // write-behind: a concurrent update may have put its newer state first; the next read loads the newest
+        if (writeBehind.isEnabled() && writeBehind.isSuperseded(saved)) {
+            employeeCache.evict(saved.getId());
+        }
+    }
 
-        return employeeRepository.save(emp);
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value;
     }
 
-    @Caching(
-            evict = {
-    @CacheEvict(cacheNames = "employee" , key = "#id"),
-    @CacheEvict(cacheNames = "employees", allEntries = true) }
-    )
-    public void deleteEmployee(Long id) {
-      Employee emp = employeeRepository.findById(id)
-              .orElseThrow(()-> new EmployeeNotFoundException("Employee not present with this id: "+id));
-      employeeRepository.delete(emp);
+    private Employee update(Long id, String name, String role, Double salary, Long expectedVersion) {
+        Employee saved;
+        if (writeBehind.isEnabled()) {
+            // the version is checked against the queued state, atomically with the update
+            saved = writeBehind.update(id, expectedVersion, name, role, salary);
+        } else {
+            saved = employeeRepository.updateReturning(id, name, role, salary, expectedVersion)
+                    .orElseThrow(() -> rejected(id, expectedVersion));
+        }
+        employeeSearchIndex.indexed(saved);
+        employeePageCache.evictPagesCovering(id, id);
+        return saved;
+    }
+
+    // nothing was written: tell a missing employee from a stale version (one extra query, on failures only)
+    private RuntimeException rejected(Long id, Long expectedVersion) {
+        if (expectedVersion != null && employeeRepository.existsById(id)) {
+            return conflict(id, expectedVersion);
+        }
+        return notFound(id);
+    }
+
+    private static EmployeeVersionConflictException conflict(Long id, Long expectedVersion) {
+        return new EmployeeVersionConflictException("Employee " + id + " was changed since version " + expectedVersion);
+    }
+
+    /**
+     * DELETE: one DELETE statement, no load first; with a version only if the employee is still at it (409 otherwise).
+     */
+    @CacheEvict(cacheNames = "employee" , key = "#id")
+    public void deleteEmployee(Long id, Long expectedVersion) {
+        if (writeBehind.isEnabled()) {
+            // queued updates are not in the row yet: the version is checked against the queued state, and updates
+            // still queued for this employee are dropped
+            writeBehind.delete(id, expectedVersion);
+            expectedVersion = null;
+        }
+        int deleted = expectedVersion == null
+                ? employeeRepository.deleteRowById(id)
+                : employeeRepository.deleteRowByIdAndVersion(id, expectedVersion);
+        if (deleted == 0) {
+            throw rejected(id, expectedVersion);
+        }
+        employeeIdFilter.removed(id);
+        employeeSearchIndex.removed(id);
+        employeePageCache.evictPagesCovering(id, id);
     }
 }
@@ -0,0 +1,512 @@
+package com.siddardha.redisDemonstration.Service;
+
+import com.siddardha.redisDemonstration.Cache.EmployeePageCache;
+import com.siddardha.redisDemonstration.Exception.EmployeeNotFoundException;
+import com.siddardha.redisDemonstration.Exception.EmployeeVersionConflictException;
+import com.siddardha.redisDemonstration.Model.Employee;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.connection.stream.Consumer;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.PendingMessage;
+import org.springframework.data.redis.connection.stream.PendingMessages;
+import org.springframework.data.redis.connection.stream.ReadOffset;
+import org.springframework.data.redis.connection.stream.RecordId;
+import org.springframework.data.redis.connection.stream.StreamOffset;
+import org.springframework.data.redis.connection.stream.StreamReadOptions;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Write-behind for employee updates (employees.write-behind.enabled). An update is appended to the Redis stream
+ * employees:write-behind (the employee's full new state) and put in the cache by the caller; the database
+ * catches up in the background.
+ * - The newest state of an updated employee is kept in employees:write-behind:state:<id> until
+ *   employees.write-behind.state-ttl after its last update. One script merges the changed fields into it and
+ *   appends the result to the stream, so concurrent updates of different fields both land, and a state never
+ *   starts from a row that queued updates have not reached yet. Cache misses read it before the database.
+ * - One flusher at a time, across nodes (Redis lease, taken and renewed by one script that only renews a lease the
+ *   node still holds). Every employees.write-behind.flush-interval it reads up to batch-size entries through the
+ *   consumer group, keeps the last state per id and writes them as one JDBC batch, then acknowledges and deletes
+ *   the entries.
+ * - A flush that outlives its lease can still overlap the next holder's: a row is only written if its version is
+ *   below the state's, so an older state never overwrites a newer one, whichever flusher commits last.
+ * - Entries survive a crash: unacknowledged ones are flushed again, those of another node once they have been
+ *   idle for longer than the lease (its flusher is gone, not just slow). An update of a row deleted in the
+ *   meantime, or already at a newer version, changes nothing and is dropped.
+ * - With the mode switched off, entries left from an earlier run are still flushed at startup.
+ * Metrics: employee.write.behind.updates{stage}, employee.write.behind.lag, employee.write.behind.backlog.
+ */
+@Service
+public class EmployeeWriteBehindService implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(EmployeeWriteBehindService.class);
+
+    static final String STREAM_KEY = "employees:write-behind";
+    private static final String GROUP = "employee-flusher";
+    private static final String LEASE_KEY = "employees:write-behind:flusher";
+    public static final String STATE_KEY_PREFIX = "employees:write-behind:state:";
+    // fields of a state hash as queuedStates reads them; deleted is only set once the employee is deleted
+    public static final List<String> STATE_FIELDS = List.of("employeeId", "name", "role", "salary", "version", "deleted");
+    private static final String ROW_SQL = "select employee_id, name, role, salary, version from employee where id = ?";
+    private static final String UPDATE_SQL = "update employee set name = ?, role = ?, salary = ?, version = ? where id = ? and version < ?";
+
+    private final StringRedisTemplate redisTemplate;
+    private final JdbcTemplate jdbcTemplate;
+    private final EmployeePageCache employeePageCache;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final long flushIntervalMillis;
+    private final int batchSize;
+    private final Duration leaseTtl;
+    private final Duration stateTtl;
+    private final DefaultRedisScript<List> updateScript;
+    private final DefaultRedisScript<String> deleteScript;
+    private final DefaultRedisScript<Long> leaseScript;
+    private final DefaultRedisScript<Long> leaseReleaseScript;
+    private final String consumerName = UUID.randomUUID().toString();
+    private final AtomicLong backlog = new AtomicLong();
+    private ScheduledExecutorService flusher;
+    private volatile boolean groupReady;
+
+    private final Counter queued;
+    private final Counter flushed;
+    private final Counter coalesced;
+    private final Counter dropped;
+    private final Timer lag;
+
+    public EmployeeWriteBehindService(StringRedisTemplate redisTemplate,
+                                      JdbcTemplate jdbcTemplate,
+                                      EmployeePageCache employeePageCache,
+                                      PlatformTransactionManager transactionManager,
+                                      MeterRegistry meterRegistry,
+                                      @Value("${employees.write-behind.enabled:false}") boolean enabled,
+                                      @Value("${employees.write-behind.flush-interval:500ms}") Duration flushInterval,
+                                      @Value("${employees.write-behind.batch-size:500}") int batchSize,
+                                      @Value("${employees.write-behind.state-ttl:1h}") Duration stateTtl) {
+        this.redisTemplate = redisTemplate;
+        this.jdbcTemplate = jdbcTemplate;
+        this.employeePageCache = employeePageCache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.flushIntervalMillis = flushInterval.toMillis();
+        this.batchSize = batchSize;
+        // long enough to survive a slow flush, short enough for another node to take over quickly
+        this.leaseTtl = Duration.ofMillis(Math.max(10_000, 20 * flushIntervalMillis));
+        this.stateTtl = stateTtl;
+        this.updateScript = new DefaultRedisScript<>();
+        this.updateScript.setLocation(new ClassPathResource("scripts/write_behind_update.lua"));
+        this.updateScript.setResultType(List.class);
+        this.deleteScript = new DefaultRedisScript<>();
+        this.deleteScript.setLocation(new ClassPathResource("scripts/write_behind_delete.lua"));
+        this.deleteScript.setResultType(String.class);
+        this.leaseScript = new DefaultRedisScript<>();
+        this.leaseScript.setLocation(new ClassPathResource("scripts/write_behind_lease.lua"));
+        this.leaseScript.setResultType(Long.class);
+        this.leaseReleaseScript = new DefaultRedisScript<>();
+        this.leaseReleaseScript.setLocation(new ClassPathResource("scripts/write_behind_lease_release.lua"));
+        this.leaseReleaseScript.setResultType(Long.class);
+
+        this.queued = updates(meterRegistry, "queued");
+        this.flushed = updates(meterRegistry, "flushed");
+        this.coalesced = updates(meterRegistry, "coalesced");
+        this.dropped = updates(meterRegistry, "dropped");
+        this.lag = Timer.builder("employee.write.behind.lag")
+                .description("Time from an update being queued to it reaching the database")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        Gauge.builder("employee.write.behind.backlog", backlog, AtomicLong::get)
+                .description("Updates in the write-behind stream not yet flushed")
+                .register(meterRegistry);
+    }
+
+    private static Counter updates(MeterRegistry registry, String stage) {
+        return Counter.builder("employee.write.behind.updates")
+                .tag("stage", stage)
+                .register(registry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Applies the given fields (null = unchanged) to the newest state of the employee, bumps its version and queues
+     * it, in one step per employee: the version check and the bump cannot interleave with another update.
+     * Fails if Redis is unreachable.
+     * @param expectedVersion version the employee must be at, or null for any
+     * @return the new state, which the caller puts in the cache
+     * @throws EmployeeNotFoundException if there is no such employee (or it was deleted)
+     * @throws EmployeeVersionConflictException if it is not at expectedVersion
+     */
+    public Employee update(long id, Long expectedVersion, String name, String role, Double salary) {
+        List<String> args = new ArrayList<>(11);
+        args.add(String.valueOf(id));
+        args.add(String.valueOf(stateTtl.toMillis()));
+        args.add(expectedVersion == null ? "" : String.valueOf(expectedVersion));
+        args.add(name == null ? "" : name);
+        args.add(role == null ? "" : role);
+        args.add(salary == null ? "" : String.valueOf(salary));
+        List<?> result = runUpdate(id, args);
+        if ("seed".equals(result.get(0))) {
+            // no state yet: nothing is queued for this employee, so its row is current
+            Map<String, Object> row = jdbcTemplate.queryForList(ROW_SQL, id).stream().findFirst()
+                    .orElseThrow(() -> notFound(id));
+            for (String column : List.of("employee_id", "name", "role", "salary", "version")) {
+                Object value = row.get(column);
+                args.add(value == null ? "" : value.toString());
+            }
+            result = runUpdate(id, args);
+        }
+        if ("gone".equals(result.get(0))) {
+            throw notFound(id);
+        }
+        if ("conflict".equals(result.get(0))) {
+            throw conflict(id, expectedVersion);
+        }
+        queued.increment();
+        return employee(id, result.subList(1, result.size()));
+    }
+
+    private List<?> runUpdate(long id, List<String> args) {
+        List<?> result = redisTemplate.execute(updateScript, List.of(STATE_KEY_PREFIX + id, STREAM_KEY), args.toArray());
+        if (result == null || result.isEmpty()) {
+            throw new IllegalStateException("Write-behind update of employee " + id + " returned nothing");
+        }
+        return result;
+    }
+
+    /**
+     * The newest state of an employee with queued (or recently flushed) updates, ahead of the database row.
+     * @return null if there is none: the row is current
+     * @throws EmployeeNotFoundException if the employee was deleted
+     */
+    public Employee queuedState(long id) {
+        Map<Long, Employee> states = queuedStates(List.of(id));
+        if (states.containsKey(id) && states.get(id) == null) {
+            throw notFound(id);
+        }
+        return states.get(id);
+    }
+
+    /**
+     * {@link #queuedState} of several employees in one round trip.
+     * @return the states found; a deleted employee maps to null, ids without a state are left out
+     */
+    public Map<Long, Employee> queuedStates(Collection<Long> ids) {
+        List<Long> lookup = List.copyOf(ids);
+        List<Object> states = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection redis = (StringRedisConnection) connection;
+            for (Long id : lookup) {
+                redis.hMGet(STATE_KEY_PREFIX + id, STATE_FIELDS.toArray(String[]::new));
+            }
+            return null;
+        });
+        Map<Long, Employee> found = new HashMap<>();
+        for (int i = 0; i < lookup.size(); i++) {
+            List<?> fields = (List<?>) states.get(i);
+            if (fields == null) {
+                continue;
+            }
+            if (isDeleted(fields)) {
+                found.put(lookup.get(i), null);
+            } else {
+                Employee state = fromState(lookup.get(i), fields);
+                if (state != null) {
+                    found.put(lookup.get(i), state);
+                }
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Whether a newer update (or the delete) of the employee has been queued since this state: the caller, which
+     * put this state in the cache, evicts it again. True if Redis cannot tell.
+     */
+    public boolean isSuperseded(Employee emp) {
+        try {
+            List<Object> fields = redisTemplate.opsForHash().multiGet(STATE_KEY_PREFIX + emp.getId(),
+                    List.of("version", "deleted"));
+            if (fields.get(1) != null) {
+                return true;
+            }
+            return fields.get(0) != null && Long.parseLong(fields.get(0).toString()) > emp.getVersion();
+        } catch (RuntimeException ex) {
+            return true;
+        }
+    }
+
+    /**
+     * Marks the employee deleted, after checking its newest state is at expectedVersion (null for any), in one
+     * step. Queued updates of it are then dropped, new ones fail with 404. The caller deletes the row.
+     * @throws EmployeeNotFoundException if it was deleted already
+     * @throws EmployeeVersionConflictException if it is not at expectedVersion
+     */
+    public void delete(long id, Long expectedVersion) {
+        List<String> keys = List.of(STATE_KEY_PREFIX + id);
+        String ttl = String.valueOf(stateTtl.toMillis());
+        String expected = expectedVersion == null ? "" : String.valueOf(expectedVersion);
+        String result = redisTemplate.execute(deleteScript, keys, ttl, expected);
+        if ("seed".equals(result)) {
+            // no state: nothing is queued, so the row's version is current
+            Long rowVersion = jdbcTemplate.queryForList("select version from employee where id = ?", Long.class, id)
+                    .stream().findFirst().orElseThrow(() -> notFound(id));
+            result = redisTemplate.execute(deleteScript, keys, ttl, expected, String.valueOf(rowVersion));
+        }
+        if ("gone".equals(result)) {
+            throw notFound(id);
+        }
+        if ("conflict".equals(result)) {
+            throw conflict(id, expectedVersion);
+        }
+    }
+
+    /** Whether the STATE_FIELDS of a state hash mark the employee deleted. */
+    public static boolean isDeleted(List<?> fields) {
+        return fields.get(5) != null;
+    }
+
+    /** @return the employee in the STATE_FIELDS of a state hash, or null if there is no state */
+    public static Employee fromState(long id, List<?> fields) {
+        return fields.get(4) == null ? null : employee(id, fields);
+    }
+
+    // fields employeeId, name, role, salary, version; '' and null are null
+    private static Employee employee(long id, List<?> fields) {
+        String[] values = new String[5];
+        for (int i = 0; i < values.length; i++) {
+            Object value = fields.get(i);
+            values[i] = value == null || value.toString().isEmpty() ? null : value.toString();
+        }
+        return new Employee(id, values[0], values[1], values[2],
+                values[3] == null ? null : Double.valueOf(values[3]),
+                values[4] == null ? 0L : Long.valueOf(values[4]));
+    }
+
+    private static EmployeeNotFoundException notFound(long id) {
+        return new EmployeeNotFoundException("Employee not found with id: " + id);
+    }
+
+    private static EmployeeVersionConflictException conflict(long id, Long expectedVersion) {
+        return new EmployeeVersionConflictException("Employee " + id + " was changed since version " + expectedVersion);
+    }
+
+    @Override
+    public void start() {
+        flusher = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "employee-write-behind");
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (enabled) {
+            flusher.scheduleWithFixedDelay(this::flushSafely, flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+        } else {
+            flusher.execute(this::drainLeftovers);
+        }
+    }
+
+    @Override
+    public void stop() {
+        flusher.shutdown();
+        try {
+            if (flusher.awaitTermination(10, TimeUnit.SECONDS) && enabled) {
+                // last flush on the way out, so a clean shutdown leaves nothing behind
+                flushSafely();
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        releaseLease();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return flusher != null && !flusher.isShutdown();
+    }
+
+    private void drainLeftovers() {
+        try {
+            if (!Boolean.TRUE.equals(redisTemplate.hasKey(STREAM_KEY))) {
+                return;
+            }
+            log.info("Write-behind is off, flushing updates left in {}", STREAM_KEY);
+            while (flush() > 0) {
+                // keep going until the stream is empty
+            }
+            releaseLease();
+        } catch (RuntimeException ex) {
+            log.warn("Could not flush write-behind leftovers: {}", ex.getMessage());
+        }
+    }
+
+    private void flushSafely() {
+        try {
+            // a full batch means more is waiting: flush again right away instead of adding an interval of lag
+            while (flush() >= batchSize) {
+                // loop
+            }
+        } catch (RuntimeException ex) {
+            log.warn("Write-behind flush failed, retrying in {} ms: {}", flushIntervalMillis, ex.getMessage());
+        }
+    }
+
+    /** @return number of stream entries flushed */
+    int flush() {
+        if (!holdLease()) {
+            return 0;
+        }
+        ensureGroup();
+        claimForeignPending();
+        // own unacknowledged entries first (an earlier flush failed), then new ones
+        List<MapRecord<String, Object, Object>> records = read(ReadOffset.from("0"));
+        if (records.isEmpty()) {
+            records = read(ReadOffset.lastConsumed());
+        }
+        if (!records.isEmpty()) {
+            write(records);
+        }
+        Long size = redisTemplate.opsForStream().size(STREAM_KEY);
+        backlog.set(size == null ? 0 : size);
+        return records.size();
+    }
+
+    private List<MapRecord<String, Object, Object>> read(ReadOffset offset) {
+        List<MapRecord<String, Object, Object>> records = redisTemplate.opsForStream().read(
+                Consumer.from(GROUP, consumerName),
+                StreamReadOptions.empty().count(batchSize),
+                StreamOffset.create(STREAM_KEY, offset));
+        return records == null ? List.of() : records;
+    }
+
+    private void write(List<MapRecord<String, Object, Object>> records) {
+        // stream order: the last entry of an id is its newest state
+        Map<Long, MapRecord<String, Object, Object>> latest = new LinkedHashMap<>();
+        for (MapRecord<String, Object, Object> record : records) {
+            latest.put(Long.valueOf((String) record.getValue().get("id")), record);
+        }
+        // a state must outlive its queued updates: without one, the next update starts from the (lagging) row
+        touchStates(latest.keySet());
+        List<Object[]> rows = new ArrayList<>(latest.size());
+        for (Map.Entry<Long, MapRecord<String, Object, Object>> entry : latest.entrySet()) {
+            Map<Object, Object> fields = entry.getValue().getValue();
+            String salary = emptyToNull(fields.get("salary"));
+            Long version = Long.valueOf((String) fields.get("version"));
+            rows.add(new Object[]{emptyToNull(fields.get("name")), emptyToNull(fields.get("role")),
+                    salary == null ? null : Double.valueOf(salary), version, entry.getKey(), version});
+        }
+        int[][] counts = transactionTemplate.execute(status -> jdbcTemplate.batchUpdate(UPDATE_SQL, rows, rows.size(),
+                (ps, row) -> {
+                    for (int i = 0; i < row.length; i++) {
+                        ps.setObject(i + 1, row[i]);
+                    }
+                }));
+
+        RecordId[] ids = records.stream().map(MapRecord::getId).toArray(RecordId[]::new);
+        redisTemplate.opsForStream().acknowledge(STREAM_KEY, GROUP, ids);
+        redisTemplate.opsForStream().delete(STREAM_KEY, ids);
+
+        long now = System.currentTimeMillis();
+        for (Map.Entry<Long, MapRecord<String, Object, Object>> entry : latest.entrySet()) {
+            // a page listed between the update and now was read from the old row
+            employeePageCache.evictPagesCovering(entry.getKey(), entry.getKey());
+            lag.record(Math.max(0, now - entry.getValue().getId().getTimestamp()), TimeUnit.MILLISECONDS);
+        }
+        long missing = counts == null ? 0 : Arrays.stream(counts).flatMapToInt(Arrays::stream)
+                .filter(count -> count == 0).count();
+        flushed.increment(latest.size() - missing);
+        dropped.increment(missing);
+        coalesced.increment(records.size() - latest.size());
+        log.debug("Flushed {} employee updates ({} stream entries)", latest.size(), records.size());
+    }
+
+    private static String emptyToNull(Object value) {
+        return value == null || value.toString().isEmpty() ? null : value.toString();
+    }
+
+    private void touchStates(Collection<Long> ids) {
+        long ttlMillis = stateTtl.toMillis();
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection redis = (StringRedisConnection) connection;
+            for (Long id : ids) {
+                redis.pExpire(STATE_KEY_PREFIX + id, ttlMillis);
+            }
+            return null;
+        });
+    }
+
+    // entries handed to a node that died before acknowledging them: idle for longer than a lease, so its flusher
+    // cannot still be writing them (XCLAIM checks the idle time again, in case the owner read them meanwhile)
+    private void claimForeignPending() {
+        PendingMessages pending = redisTemplate.opsForStream().pending(STREAM_KEY, GROUP, Range.unbounded(), batchSize);
+        RecordId[] foreign = pending.stream()
+                .filter(message -> !consumerName.equals(message.getConsumerName()))
+                .filter(message -> message.getElapsedTimeSinceLastDelivery().compareTo(leaseTtl) > 0)
+                .map(PendingMessage::getId)
+                .toArray(RecordId[]::new);
+        if (foreign.length > 0) {
+            redisTemplate.opsForStream().claim(STREAM_KEY, GROUP, consumerName, leaseTtl, foreign);
+        }
+    }
+
+    private void ensureGroup() {
+        if (groupReady) {
+            return;
+        }
+        byte[] key = STREAM_KEY.getBytes(StandardCharsets.UTF_8);
+        try {
+            redisTemplate.execute((RedisCallback<String>) connection ->
+                    connection.streamCommands().xGroupCreate(key, GROUP, ReadOffset.from("0"), true));
+        } catch (RuntimeException ex) {
+            String reason = NestedExceptionUtils.getMostSpecificCause(ex).getMessage();
+            if (reason == null || !reason.contains("BUSYGROUP")) {
+                throw ex;
+            }
+        }
+        groupReady = true;
+    }
+
+    private boolean holdLease() {
+        Long held = redisTemplate.execute(leaseScript, List.of(LEASE_KEY), consumerName,
+                String.valueOf(leaseTtl.toMillis()));
+        return held != null && held == 1;
+    }
+
+    private void releaseLease() {
+        try {
+            redisTemplate.execute(leaseReleaseScript, List.of(LEASE_KEY), consumerName);
+        } catch (RuntimeException ex) {
+            log.debug("Could not release write-behind lease: {}", ex.getMessage());
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package com.siddardha.redisDemonstration.Service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.siddardha.redisDemonstration.Config.RateLimitProperties;
+import com.siddardha.redisDemonstration.Exception.RedisUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hybrid rate limiter: a per-node token bucket per user in front of the Redis sliding window.
+ * - Permits are leased from Redis in chunks and spent locally without any network I/O.
+ * - Once Redis says the window is full, the user is rejected locally until the window frees up.
+ * Leased-but-unused permits count against the global window, so the global limit is never exceeded,
+ * it can only be reached slightly early when several nodes hold partial leases.
+ * While Redis is unavailable (see RedisCircuitBreaker), each node enforces the policy on its own: up to the full
+ * limit per window and user, counted in the same local bucket (decisions tagged source=degraded).
+ */
+@Service
+public class LocalRateLimiterService {
+
+    private final RedisLimiterService redisLimiterService;
+    private final RateLimitProperties rateLimitProperties;
+    private final Cache<String, LocalBucket> buckets;
+
+    private final Counter localAllowed;
+    private final Counter localDenied;
+    private final Counter globalAllowed;
+    private final Counter globalDenied;
+    private final Counter degradedAllowed;
+    private final Counter degradedDenied;
+    private final DistributionSummary leaseSize;
+
+    public LocalRateLimiterService(RedisLimiterService redisLimiterService,
+                                   RateLimitProperties rateLimitProperties,
+                                   MeterRegistry meterRegistry) {
+        this.redisLimiterService = redisLimiterService;
+        this.rateLimitProperties = rateLimitProperties;
+        RateLimitProperties.Local local = rateLimitProperties.getLocal();
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(local.getMaxBuckets())
+                .expireAfterAccess(local.getBucketIdleTimeout())
+                .build();
+
+        this.localAllowed = decisions(meterRegistry, "local", "allowed");
+        this.localDenied = decisions(meterRegistry, "local", "denied");
+        this.globalAllowed = decisions(meterRegistry, "global", "allowed");
+        this.globalDenied = decisions(meterRegistry, "global", "denied");
+        this.degradedAllowed = decisions(meterRegistry, "degraded", "allowed");
+        this.degradedDenied = decisions(meterRegistry, "degraded", "denied");
+        this.leaseSize = DistributionSummary.builder("rate.limiter.lease.size")
+                .description("Permits granted per Redis lease")
+                .register(meterRegistry);
+        Gauge.builder("rate.limiter.local.decision.ratio", this, LocalRateLimiterService::localDecisionRatio)
+                .description("Share of rate-limit decisions taken without a Redis call")
+                .register(meterRegistry);
+    }
+
+    private static Counter decisions(MeterRegistry registry, String source, String outcome) {
+        return Counter.builder("rate.limiter.decisions")
+                .tag("source", source)
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+
+    public RateLimitDecision isAllowed(String route, String tier, String userId) {
+        String bucketKey = route + ":" + tier + ":" + userId;
+        if (!rateLimitProperties.getLocal().isEnabled()) {
+            RateLimitDecision decision;
+            try {
+                decision = redisLimiterService.isAllowed(route, tier, userId);
+            } catch (RedisUnavailableException ex) {
+                LocalBucket bucket = buckets.get(bucketKey, key -> new LocalBucket());
+                return degraded(bucket, rateLimitProperties.policyFor(route, tier), System.currentTimeMillis());
+            }
+            (decision.allowed() ? globalAllowed : globalDenied).increment();
+            return decision;
+        }
+
+        LocalBucket bucket = buckets.get(bucketKey, key -> new LocalBucket());
+        long now = System.currentTimeMillis();
+
+        long left = bucket.tryConsume(now);
+        if (left >= 0) {
+            localAllowed.increment();
+            return new RateLimitDecision(true, bucket.globalRemaining + left, 0);
+        }
+        long deniedFor = bucket.deniedUntil - now;
+        if (deniedFor > 0) {
+            localDenied.increment();
+            return new RateLimitDecision(false, 0, deniedFor);
+        }
+
+        RateLimitProperties.Policy policy = rateLimitProperties.policyFor(route, tier);
+        RateLimitLease lease;
+        try {
+            lease = redisLimiterService.acquire(route, tier, userId, leaseSize(policy));
+        } catch (RedisUnavailableException ex) {
+            return degraded(bucket, policy, now);
+        }
+        if (lease.granted() == 0) {
+            bucket.deniedUntil = now + lease.retryAfterMillis();
+            globalDenied.increment();
+            return new RateLimitDecision(false, 0, lease.retryAfterMillis());
+        }
+        leaseSize.record(lease.granted());
+        // one permit is used by this request, the rest stays valid as long as the Redis window keeps it
+        long localLeft = bucket.refill(lease.granted() - 1, lease.remaining(), now, now + policy.getWindow().toMillis());
+        globalAllowed.increment();
+        return new RateLimitDecision(true, lease.remaining() + localLeft, 0);
+    }
+
+    /** Decision without Redis: the bucket is refilled with the whole policy limit once per window. */
+    private RateLimitDecision degraded(LocalBucket bucket, RateLimitProperties.Policy policy, long now) {
+        long left = bucket.tryConsume(now);
+        if (left >= 0) {
+            degradedAllowed.increment();
+            return new RateLimitDecision(true, left, 0);
+        }
+        long windowLeft = bucket.degradedWindowEnd - now;
+        if (windowLeft > 0) {
+            // the limit of this window is used up; deny locally, without asking Redis again, until it ends
+            bucket.deniedUntil = bucket.degradedWindowEnd;
+            degradedDenied.increment();
+            return new RateLimitDecision(false, 0, windowLeft);
+        }
+        long windowEnd = now + policy.getWindow().toMillis();
+        long localLeft = bucket.refill(policy.getLimit() - 1L, 0, now, windowEnd);
+        bucket.degradedWindowEnd = windowEnd;
+        degradedAllowed.increment();
+        return new RateLimitDecision(true, localLeft, 0);
+    }
+
+    private int leaseSize(RateLimitProperties.Policy policy) {
+        return Math.max(1, Math.min(rateLimitProperties.getLocal().getMaxLease(), policy.getLimit() / 10));
+    }
+
+    private double localDecisionRatio() {
+        double local = localAllowed.count() + localDenied.count();
+        double total = local + globalAllowed.count() + globalDenied.count();
+        return total == 0 ? 0 : local / total;
+    }
+
+    /** Lock-free per-user bucket; fields are read racily on purpose, the limiter is approximate by design. */
+    static final class LocalBucket {
+        private final AtomicLong tokens = new AtomicLong();
+        private volatile long leaseExpiresAt;
+        volatile long deniedUntil;
+        // what Redis reported as left in the window at the last lease, for the X-RateLimit-Remaining header
+        volatile long globalRemaining;
+        // end of the window the bucket was last refilled for without Redis
+        volatile long degradedWindowEnd;
+
+        /** @return tokens left after taking one, or -1 if the bucket is empty or the lease expired */
+        long tryConsume(long now) {
+            if (now >= leaseExpiresAt) {
+                return -1;
+            }
+            while (true) {
+                long current = tokens.get();
+                if (current <= 0) {
+                    return -1;
+                }
+                if (tokens.compareAndSet(current, current - 1)) {
+                    return current - 1;
+                }
+            }
+        }
+
+        long refill(long permits, long remaining, long now, long expiresAt) {
+            long left = now >= leaseExpiresAt ? set(permits) : tokens.addAndGet(permits);
+            leaseExpiresAt = expiresAt;
+            globalRemaining = remaining;
+            deniedUntil = 0;
+            return left;
+        }
+
+        private long set(long permits) {
+            tokens.set(permits);
+            return permits;
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.siddardha.redisDemonstration.Service;
+
+import com.siddardha.redisDemonstration.Exception.LoginThrottledException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Runs BCrypt on a small dedicated pool, so a burst of logins cannot take the CPU from every other request.
+ * - security.login.threads workers, at most security.login.queue-capacity waiting hashes. A hash that does not
+ *   fit, or is not done within security.login.max-wait, fails fast with {@link LoginThrottledException} (429).
+ * - Metrics: login.queue.wait, login.hash.duration{operation}, login.rejected{reason}, login.queue.depth.
+ */
+@Service
+public class PasswordHashingService implements DisposableBean {
+
+    // $2a$10$... -> cost 10
+    private static final Pattern BCRYPT_COST = Pattern.compile("^\\$2[abxy]?\\$(\\d{2})\\$");
+
+    private final PasswordEncoder passwordEncoder;
+    private final int strength;
+    private final long maxWaitNanos;
+    private final ThreadPoolExecutor executor;
+
+    private final Timer queueWait;
+    private final Timer matchTime;
+    private final Timer encodeTime;
+    private final Counter rejectedFull;
+    private final Counter rejectedTimeout;
+
+    public PasswordHashingService(PasswordEncoder passwordEncoder,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${security.bcrypt.strength:10}") int strength,
+                                  @Value("${security.login.threads:2}") int threads,
+                                  @Value("${security.login.queue-capacity:64}") int queueCapacity,
+                                  @Value("${security.login.max-wait:2s}") Duration maxWait) {
+        this.passwordEncoder = passwordEncoder;
+        this.strength = strength;
+        this.maxWaitNanos = maxWait.toNanos();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new HashingThreadFactory(), new ThreadPoolExecutor.AbortPolicy());
+
+        this.queueWait = Timer.builder("login.queue.wait")
+                .description("Time a password hash waited for a login worker")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.matchTime = hashTimer(meterRegistry, "matches");
+        this.encodeTime = hashTimer(meterRegistry, "encode");
+        this.rejectedFull = rejected(meterRegistry, "queue-full");
+        this.rejectedTimeout = rejected(meterRegistry, "timeout");
+        Gauge.builder("login.queue.depth", executor, pool -> pool.getQueue().size())
+                .description("Password hashes waiting for a login worker")
+                .register(meterRegistry);
+    }
+
+    private static Timer hashTimer(MeterRegistry registry, String operation) {
+        return Timer.builder("login.hash.duration")
+                .description("BCrypt time per password hash")
+                .tag("operation", operation)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    private static Counter rejected(MeterRegistry registry, String reason) {
+        return Counter.builder("login.rejected")
+                .description("Password hashes refused by the login pool")
+                .tag("reason", reason)
+                .register(registry);
+    }
+
+    public boolean matches(String rawPassword, String encodedPassword) {
+        return run(matchTime, () -> passwordEncoder.matches(rawPassword, encodedPassword));
+    }
+
+    public String encode(String rawPassword) {
+        return run(encodeTime, () -> passwordEncoder.encode(rawPassword));
+    }
+
+    /** @return true if the hash was made with another work factor than security.bcrypt.strength */
+    public boolean needsRehash(String encodedPassword) {
+        Matcher cost = BCRYPT_COST.matcher(encodedPassword);
+        return cost.find() && Integer.parseInt(cost.group(1)) != strength;
+    }
+
+    private <T> T run(Timer hashTime, Callable<T> hash) {
+        long submitted = System.nanoTime();
+        Future<T> result;
+        try {
+            result = executor.submit(() -> {
+                long started = System.nanoTime();
+                queueWait.record(started - submitted, TimeUnit.NANOSECONDS);
+                try {
+                    return hash.call();
+                } finally {
+                    hashTime.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+                }
+            });
+        } catch (RejectedExecutionException ex) {
+            rejectedFull.increment();
+            throw new LoginThrottledException("Too many logins in progress, please retry shortly");
+        }
+        try {
+            return result.get(maxWaitNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException ex) {
+            // a hash still queued is skipped by the worker, one already running finishes unobserved
+            result.cancel(false);
+            rejectedTimeout.increment();
+            throw new LoginThrottledException("Too many logins in progress, please retry shortly");
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            result.cancel(false);
+            throw new IllegalStateException("Interrupted while waiting for password check", ex);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Password check failed", ex.getCause());
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    private static final class HashingThreadFactory implements ThreadFactory {
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable task) {
+            Thread thread = new Thread(task, "login-hash-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.siddardha.redisDemonstration.Service;
+
+/**
+ * Outcome of a rate-limit check.
+ * @param remaining      requests left in the current window
+ * @param retryAfterMillis time until the next request can be accepted, 0 when allowed
+ */
+public record RateLimitDecision(boolean allowed, long remaining, long retryAfterMillis) {
+
+    public long retryAfterSeconds() {
+        return (retryAfterMillis + 999) / 1000;
+    }
+}
@@ -0,0 +1,10 @@
+package com.siddardha.redisDemonstration.Service;
+
+/**
+ * Permits handed out by the global (Redis) limiter in one call.
+ * @param granted          permits taken from the window, 0 when the window is full
+ * @param remaining        permits still left in the window after this lease
+ * @param retryAfterMillis time until the window frees up, 0 when granted
+ */
+public record RateLimitLease(long granted, long remaining, long retryAfterMillis) {
+}
@@ -1,32 +1,68 @@
 package com.siddardha.redisDemonstration.Service;
 
-import org.springframework.data.redis.core.RedisTemplate;
+import com.siddardha.redisDemonstration.Config.RateLimitProperties;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.stereotype.Service;
 
-import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * Sliding-window rate limiter backed by a Lua script (scripts/sliding_window_rate_limit.lua).
+ * The check, the bookkeeping and the expiry happen atomically in a single EVALSHA round trip.
+ */
 @Service
 public class RedisLimiterService {
 
-    private final RedisTemplate<String, Object> redisTemplate;
-    private static final int LIMIT = 5;
-    private static final int WINDOW_SECONDS = 60;
+    public static final String STANDARD_TIER = "standard";
+    public static final String ADMIN_TIER = "admin";
 
-    public RedisLimiterService(RedisTemplate<String, Object> redisTemplate) {
+    private final StringRedisTemplate redisTemplate;
+    private final RateLimitProperties rateLimitProperties;
+    private final DefaultRedisScript<List> slidingWindowScript;
+    // members of the window log must be unique across nodes
+    private final String memberPrefix = UUID.randomUUID() + ":";
+    private final AtomicLong sequence = new AtomicLong();
+
+    public RedisLimiterService(StringRedisTemplate redisTemplate, RateLimitProperties rateLimitProperties) {
         this.redisTemplate = redisTemplate;
+        this.rateLimitProperties = rateLimitProperties;
+        this.slidingWindowScript = new DefaultRedisScript<>();
+        this.slidingWindowScript.setLocation(new ClassPathResource("scripts/sliding_window_rate_limit.lua"));
+        this.slidingWindowScript.setResultType(List.class);
     }
 
-    public boolean isAllowed(String userId) {
-        String key = "rate:" +userId;
-        Long count  = redisTemplate.opsForValue().increment(key);
+    public RateLimitDecision isAllowed(String route, String tier, String userId) {
+        RateLimitLease lease = acquire(route, tier, userId, 1);
+        return new RateLimitDecision(lease.granted() > 0, lease.remaining(), lease.retryAfterMillis());
+    }
 
-        if(count ==1) {
-            redisTemplate.expire(key, Duration.ofSeconds(WINDOW_SECONDS));
-        }
-        return count <= LIMIT;
+    /** Takes up to {@code permits} permits from the user's window in one round trip. */
+    @SuppressWarnings("unchecked")
+    public RateLimitLease acquire(String route, String tier, String userId, int permits) {
+        RateLimitProperties.Policy policy = rateLimitProperties.policyFor(route, tier);
+        List<Long> result = redisTemplate.execute(slidingWindowScript,
+                List.of("rate:" + route + ":" + userId),
+                String.valueOf(policy.getLimit()),
+                String.valueOf(policy.getWindow().toMillis()),
+                memberPrefix + sequence.incrementAndGet(),
+                String.valueOf(permits));
+        return new RateLimitLease(result.get(0), result.get(1), result.get(2));
     }
 
-    public Long getRemainingTtl(String userId) {
-        return redisTemplate.getExpire("rate:" + userId);
+    public static String tierOf(Authentication authentication) {
+        if (authentication != null) {
+            for (GrantedAuthority authority : authentication.getAuthorities()) {
+                if ("ROLE_ADMIN".equals(authority.getAuthority())) {
+                    return ADMIN_TIER;
+                }
+            }
+        }
+        return STANDARD_TIER;
     }
 }
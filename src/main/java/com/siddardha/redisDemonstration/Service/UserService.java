@@ -1,5 +1,8 @@
 package com.siddardha.redisDemonstration.Service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.siddardha.redisDemonstration.Cache.PrincipalCache;
 import com.siddardha.redisDemonstration.DTO.UserRequest;
 import com.siddardha.redisDemonstration.Exception.UserAlreadyExistsException;
 import com.siddardha.redisDemonstration.Exception.UserNotFoundException;
@@ -8,10 +11,19 @@ import com.siddardha.redisDemonstration.Model.User;
 import com.siddardha.redisDemonstration.Repository.RoleRepository;
 import com.siddardha.redisDemonstration.Repository.UserRepository;
 import com.siddardha.redisDemonstration.Util.JwtUtil;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import jakarta.validation.Valid;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
 import java.util.List;
 
 @Service
@@ -19,14 +31,33 @@ public class UserService {
 
     private final UserRepository userRepository;
     private final RoleRepository roleRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashingService;
     private final JwtUtil jwtUtil;
+    private final PrincipalCache principalCache;
+    // tokens issued for recently checked credentials, so a client retrying a login does not cost another BCrypt
+    private final Cache<String, String> issuedTokens;
+    // keys the credential digests: a digest in memory is useless without it, and it never leaves the process
+    private final SecretKeySpec credentialKey;
 
-    public UserService(UserRepository userRepository, RoleRepository roleRepository, PasswordEncoder passwordEncoder, JwtUtil jwtUtil) {
+    public UserService(UserRepository userRepository, RoleRepository roleRepository,
+                       PasswordHashingService passwordHashingService, JwtUtil jwtUtil, PrincipalCache principalCache,
+                       MeterRegistry meterRegistry,
+                       @Value("${security.login.token-cache.ttl:30s}") Duration tokenCacheTtl,
+                       @Value("${security.login.token-cache.maximum-size:10000}") long tokenCacheSize) {
         this.roleRepository = roleRepository;
         this.userRepository = userRepository;
-        this.passwordEncoder = passwordEncoder;
+        this.passwordHashingService = passwordHashingService;
         this.jwtUtil = jwtUtil;
+        this.principalCache = principalCache;
+        this.issuedTokens = Caffeine.newBuilder()
+                .maximumSize(tokenCacheSize)
+                .expireAfterWrite(tokenCacheTtl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, issuedTokens, "login.tokens");
+        byte[] key = new byte[32];
+        new SecureRandom().nextBytes(key);
+        this.credentialKey = new SecretKeySpec(key, "HmacSHA256");
     }
 
     public User createUser(@Valid UserRequest userRequest) {
@@ -35,7 +66,7 @@ public class UserService {
         }
         User user  = new User();
         user.setUsername(userRequest.getUsername());
-        user.setPassword(passwordEncoder.encode(userRequest.getPassword()));
+        user.setPassword(passwordHashingService.encode(userRequest.getPassword()));
         Role defaultRole = roleRepository.findByName("ROLE_USER")
                 .orElseGet(() -> {
                     Role role = new Role();
@@ -43,7 +74,10 @@ public class UserService {
                     return roleRepository.save(role);
                 });
         user.getRoles().add(defaultRole);
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        // roles are part of the cached principal
+        principalCache.evict(saved.getUsername());
+        return saved;
     }
 
     public List<User> getAllUsers() {
@@ -54,10 +88,36 @@ public class UserService {
         User existingUser = userRepository.findByUsername(userRequest.getUsername())
                 .orElseThrow(() -> new UserNotFoundException("user not found"));
 
-        if(passwordEncoder.matches(userRequest.getPassword(), existingUser.getPassword())) {
-            return jwtUtil.generateToken(existingUser.getUsername());
-        } else {
+        // the stored hash is part of the key, so a password change or rehash never serves an old entry
+        String credentials = credentialDigest(existingUser.getUsername(), userRequest.getPassword(), existingUser.getPassword());
+        String cached = issuedTokens.getIfPresent(credentials);
+        if (cached != null) {
+            return cached;
+        }
+        if (!passwordHashingService.matches(userRequest.getPassword(), existingUser.getPassword())) {
             throw new RuntimeException("Invalid credentials");
         }
+        if (passwordHashingService.needsRehash(existingUser.getPassword())) {
+            existingUser.setPassword(passwordHashingService.encode(userRequest.getPassword()));
+            userRepository.save(existingUser);
+            credentials = credentialDigest(existingUser.getUsername(), userRequest.getPassword(), existingUser.getPassword());
+        }
+        String token = jwtUtil.generateToken(existingUser.getUsername());
+        issuedTokens.put(credentials, token);
+        return token;
+    }
+
+    private String credentialDigest(String username, String password, String storedHash) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(credentialKey);
+            for (String part : new String[]{username, password, storedHash}) {
+                mac.update(part.getBytes(StandardCharsets.UTF_8));
+                mac.update((byte) 0);
+            }
+            return Base64.getEncoder().encodeToString(mac.doFinal());
+        } catch (GeneralSecurityException ex) {
+            throw new IllegalStateException("HmacSHA256 not available", ex);
+        }
     }
 }
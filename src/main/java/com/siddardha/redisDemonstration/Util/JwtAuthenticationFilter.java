@@ -1,6 +1,7 @@
 package com.siddardha.redisDemonstration.Util;
 
-import com.siddardha.redisDemonstration.Service.CustomUserDetailsService;
+import com.siddardha.redisDemonstration.Cache.PrincipalCache;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -21,12 +22,12 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtUtil jwtUtil;
 
-    private final CustomUserDetailsService customUserDetailsService;
+    private final PrincipalCache principalCache;
 
     @Autowired
-    public JwtAuthenticationFilter(JwtUtil jwtUtil, CustomUserDetailsService customUserDetailsService) {
+    public JwtAuthenticationFilter(JwtUtil jwtUtil, PrincipalCache principalCache) {
         this.jwtUtil = jwtUtil;
-        this.customUserDetailsService = customUserDetailsService;
+        this.principalCache = principalCache;
     }
 
     @Override
@@ -35,18 +36,14 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                                     FilterChain filterChain) throws ServletException, IOException {
 
         String authHeader  = request.getHeader("Authorization");
-        String token  = null;
-        String username  = null;
 
-        if(authHeader!=null && authHeader.startsWith("Bearer ")) {
-            token  = authHeader.substring(7);
-            username = jwtUtil.extractUsername(token);
-        }
-
-        if(username!=null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = customUserDetailsService.loadUserByUsername(username);
-
-            if(jwtUtil.validateToken(token)) {
+        // validate before touching the user store: a bad token must not cost a user lookup
+        if(authHeader!=null && authHeader.startsWith("Bearer ")
+                && SecurityContextHolder.getContext().getAuthentication() == null) {
+            String token  = authHeader.substring(7);
+            Claims claims = jwtUtil.verify(token);
+            if(claims != null) {
+                UserDetails userDetails = principalCache.get(claims.getSubject(), claims.getExpiration().getTime());
                 UsernamePasswordAuthenticationToken authentication =
                         new UsernamePasswordAuthenticationToken(
                                 userDetails,
@@ -1,55 +1,110 @@
 package com.siddardha.redisDemonstration.Util;
 
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.security.Key;
 import java.util.Date;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Issues and verifies HS256 tokens.
+ * - The signing key and the (immutable, thread-safe) parser are built once at startup.
+ * - A token is parsed and verified once per request by {@link #verify}; tokens verified recently are
+ *   remembered until they expire, so a client repeating its token skips the HMAC and the JSON parsing.
+ */
 @Component
 public class JwtUtil {
 
-    private final String secret;
     private final long EXPIRATION_TIME = 1000 * 60 * 60;
 
-    public JwtUtil(@Value("${jwt.secret}") String jwtSecret) {
-        this.secret = jwtSecret;
-    }
+    private final Key signingKey;
+    private final JwtParser parser;
+    // keyed by the exact token string: equal strings carry the same (already checked) signature
+    private final Cache<String, Claims> verified;
 
-    private Key getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes());
+    public JwtUtil(@Value("${jwt.secret}") String jwtSecret,
+                   @Value("${jwt.verified-cache.maximum-size:10000}") long verifiedCacheSize,
+                   MeterRegistry meterRegistry) {
+        this.signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
+        this.verified = Caffeine.newBuilder()
+                .maximumSize(verifiedCacheSize)
+                .expireAfter(new UntilTokenExpiry())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, verified, "jwt.verified");
     }
 
     public String generateToken(String username) {
          return Jwts.builder()
                  .setSubject(username)
                  .setExpiration(new Date(System.currentTimeMillis() + EXPIRATION_TIME))
-                 .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                 .signWith(signingKey, SignatureAlgorithm.HS256)
                  .compact();
     }
 
-    public String extractUsername(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody()
-                .getSubject();
+    /**
+     * @return the claims of a valid, unexpired token, or null if the token is malformed, forged, expired or has no expiry.
+     * The returned claims are shared between requests and must not be modified.
+     */
+    public Claims verify(String token) {
+        Claims claims = verified.getIfPresent(token);
+        if (claims != null) {
+            return claims;
+        }
+        try {
+            claims = parser.parseClaimsJws(token).getBody();
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+        // every token issued here expires; one without an expiry was not issued by this service
+        if (claims.getExpiration() == null) {
+            return null;
+        }
+        verified.put(token, claims);
+        return claims;
+    }
+
+    /** Signs and parses throwaway tokens (bypassing the verified cache) so the JIT compiles both paths at startup. */
+    public int exercise(int iterations) {
+        int checked = 0;
+        for (int i = 0; i < iterations; i++) {
+            checked += parser.parseClaimsJws(generateToken("warm-up-" + i)).getBody().getSubject().length();
+        }
+        return checked;
     }
 
-    public boolean validateToken(String token) {
-      try {
-          Jwts.parserBuilder()
-                  .setSigningKey(getSigningKey())
-                  .build()
-                  .parseClaimsJws(token);
-          return true;
-      } catch (Exception e) {
-          return false;
-      }
+    private static final class UntilTokenExpiry implements Expiry<String, Claims> {
+
+        @Override
+        public long expireAfterCreate(String token, Claims claims, long currentTime) {
+            long untilExpiry = claims.getExpiration().getTime() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, untilExpiry));
+        }
+
+        @Override
+        public long expireAfterUpdate(String token, Claims claims, long currentTime, long currentDuration) {
+            return expireAfterCreate(token, claims, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String token, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
     }
 }
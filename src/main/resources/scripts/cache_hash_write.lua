@@ -0,0 +1,30 @@
+-- Writes one cache entry laid out as a hash (see RedisHashCache) together with its TTL, atomically.
+-- KEYS[1] : entry key
+-- ARGV[1] : 'put' replaces the entry, 'absent' only writes if there is none, 'fields' writes only the first
+--           ARGV[3] field/value pairs if the entry exists (all pairs otherwise)
+-- ARGV[2] : TTL in milliseconds
+-- ARGV[3] : number of leading pairs written by 'fields' to an existing entry
+-- ARGV[4..] : field, value, field, value, ...
+-- A key of another type (a value cached before the cache switched layout) counts as no entry.
+-- Returns 1 if written, 0 if not ('absent' and an entry exists).
+
+local kind = redis.call('TYPE', KEYS[1]).ok
+local exists = kind == 'hash'
+local mode = ARGV[1]
+if mode == 'absent' and exists then
+    return 0
+end
+if kind ~= 'none' and (mode == 'put' or not exists) then
+    redis.call('DEL', KEYS[1])
+    exists = false
+end
+
+local last = #ARGV
+if mode == 'fields' and exists then
+    last = 3 + 2 * tonumber(ARGV[3])
+end
+if last > 3 then
+    redis.call('HSET', KEYS[1], unpack(ARGV, 4, last))
+end
+redis.call('PEXPIRE', KEYS[1], ARGV[2])
+return 1
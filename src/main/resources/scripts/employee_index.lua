@@ -0,0 +1,30 @@
+-- Keeps the employee search index in step with the employee table, evaluated atomically per call.
+-- KEYS[1] : sorted set of all employee ids, scored by salary
+-- KEYS[2] : sorted set of "<name>\0<id>" members, all scored 0 (lexicographic, for name prefixes)
+-- KEYS[3] : hash id -> "<role>\0<name>", what is currently indexed for each id
+-- ARGV[1] : key prefix of the per-role sorted sets (ids scored by salary)
+-- ARGV[2..] : 5 values per employee: op ('+' upsert, '-' remove), id, role, name, salary ('' = none)
+-- The old role key is derived from the stored entry, so all keys must live on one node (no Redis Cluster).
+
+local rolePrefix = ARGV[1]
+for i = 2, #ARGV, 5 do
+    local op, id = ARGV[i], ARGV[i + 1]
+    local old = redis.call('HGET', KEYS[3], id)
+    if old then
+        local sep = string.find(old, '\0', 1, true)
+        redis.call('ZREM', rolePrefix .. string.sub(old, 1, sep - 1), id)
+        redis.call('ZREM', KEYS[2], string.sub(old, sep + 1) .. '\0' .. id)
+    end
+    if op == '+' then
+        local role, name = ARGV[i + 2], ARGV[i + 3]
+        local salary = ARGV[i + 4] == '' and '-inf' or ARGV[i + 4]
+        redis.call('ZADD', KEYS[1], salary, id)
+        redis.call('ZADD', rolePrefix .. role, salary, id)
+        redis.call('ZADD', KEYS[2], 0, name .. '\0' .. id)
+        redis.call('HSET', KEYS[3], id, role .. '\0' .. name)
+    else
+        redis.call('ZREM', KEYS[1], id)
+        redis.call('HDEL', KEYS[3], id)
+    end
+end
+return 0
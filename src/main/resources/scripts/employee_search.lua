@@ -0,0 +1,65 @@
+-- Employee search over the index kept by employee_index.lua, evaluated in one round trip.
+-- KEYS[1] : sorted set scored by salary: all employees, or those of the requested role
+-- KEYS[2] : sorted set of "<name>\0<id>" members (lexicographic)
+-- KEYS[3] : hash id -> "<role>\0<name>"
+-- KEYS[4] : marker set once the index is completely built
+-- ARGV[1], ARGV[2] : salary range as ZRANGEBYSCORE bounds ('-inf' / '+inf' when open)
+-- ARGV[3] : name prefix ('' = any name)
+-- ARGV[4], ARGV[5] : offset and count of the wanted matches
+-- ARGV[6] : '1' if role or salary restrict the result, '0' if only the name prefix does
+-- ARGV[7] : most salary range entries checked against the name prefix when both are given
+-- returns the matching ids ordered by salary (by name when only a name prefix is given),
+-- nil while the index is not built, or {'scan-limit'} if a combined filter would check more than ARGV[7] entries
+
+if redis.call('EXISTS', KEYS[4]) == 0 then
+    return nil
+end
+
+local min, max, prefix = ARGV[1], ARGV[2], ARGV[3]
+local offset, count = tonumber(ARGV[4]), tonumber(ARGV[5])
+
+if prefix == '' then
+    return redis.call('ZRANGEBYSCORE', KEYS[1], min, max, 'LIMIT', offset, count)
+end
+
+local ids = {}
+if ARGV[6] == '0' then
+    -- "\255" never occurs in UTF-8, so this range holds exactly the names starting with the prefix
+    local members = redis.call('ZRANGEBYLEX', KEYS[2], '[' .. prefix, '(' .. prefix .. '\255', 'LIMIT', offset, count)
+    for i, member in ipairs(members) do
+        ids[i] = string.match(member, '%z(%d+)$')
+    end
+    return ids
+end
+
+-- both: walk the salary range in chunks and keep the ids whose name starts with the prefix. Bounded, as a script
+-- blocks every other client: a rare prefix or a deep offset is left to the database
+local chunk, start, skipped, maxScan = 500, 0, 0, tonumber(ARGV[7])
+while #ids < count do
+    if start >= maxScan then
+        return {'scan-limit'}
+    end
+    local batch = redis.call('ZRANGEBYSCORE', KEYS[1], min, max, 'LIMIT', start, math.min(chunk, maxScan - start))
+    if #batch == 0 then
+        break
+    end
+    local entries = redis.call('HMGET', KEYS[3], unpack(batch))
+    for i, id in ipairs(batch) do
+        local entry = entries[i]
+        if entry then
+            local name = string.sub(entry, string.find(entry, '\0', 1, true) + 1)
+            if string.sub(name, 1, #prefix) == prefix then
+                if skipped < offset then
+                    skipped = skipped + 1
+                else
+                    ids[#ids + 1] = id
+                    if #ids == count then
+                        break
+                    end
+                end
+            end
+        end
+    end
+    start = start + #batch
+end
+return ids
@@ -0,0 +1,36 @@
+-- Sliding-window log rate limiter, evaluated atomically in one round trip.
+-- KEYS[1] : sorted set holding one member per accepted request, scored by its timestamp (ms)
+-- ARGV[1] : max requests per window
+-- ARGV[2] : window length in ms
+-- ARGV[3] : unique member prefix for this call
+-- ARGV[4] : permits wanted (optional, default 1) - nodes lease several permits at once
+-- returns {granted permits (0 = denied), remaining quota, retry-after in ms (0 when granted)}
+
+-- TIME before writes needs effects replication on Redis < 7 (no-op on newer servers)
+redis.replicate_commands()
+
+local limit = tonumber(ARGV[1])
+local window = tonumber(ARGV[2])
+local permits = tonumber(ARGV[4] or '1')
+local time = redis.call('TIME')
+local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+
+redis.call('ZREMRANGEBYSCORE', KEYS[1], '-inf', now - window)
+local available = limit - redis.call('ZCARD', KEYS[1])
+
+if available > 0 then
+    local granted = math.min(permits, available)
+    for i = 1, granted do
+        redis.call('ZADD', KEYS[1], now, ARGV[3] .. ':' .. i)
+    end
+    redis.call('PEXPIRE', KEYS[1], window)
+    return {granted, available - granted, 0}
+end
+
+-- denied: the window frees up when its oldest request falls out of it
+local oldest = redis.call('ZRANGE', KEYS[1], 0, 0, 'WITHSCORES')
+local retryAfter = window
+if oldest[2] then
+    retryAfter = math.max(1, tonumber(oldest[2]) + window - now)
+end
+return {0, 0, retryAfter}
@@ -0,0 +1,29 @@
+-- Write-behind side of deleting one employee, evaluated atomically: checks the expected version against the
+-- newest state and marks the state deleted, so no update can slip in between the check and the delete.
+-- KEYS[1] : hash with the newest state of the employee (see write_behind_update.lua)
+-- ARGV[1] : state TTL in ms
+-- ARGV[2] : version the delete expects the employee to be at ('' = any)
+-- ARGV[3] : version of the database row, only given once the script asked for it
+-- returns 'seed' if a version is expected, there is no state and no row version was given, 'gone' if the
+-- employee was already deleted, 'conflict' if it is not at the expected version, otherwise 'ok'
+
+local state = KEYS[1]
+if redis.call('HEXISTS', state, 'deleted') == 1 then
+    return 'gone'
+end
+if ARGV[2] ~= '' then
+    local version = redis.call('HGET', state, 'version')
+    if not version then
+        if not ARGV[3] then
+            return 'seed'
+        end
+        -- no state: nothing is queued, so the row is current
+        version = ARGV[3]
+    end
+    if tonumber(version) ~= tonumber(ARGV[2]) then
+        return 'conflict'
+    end
+end
+redis.call('HSET', state, 'deleted', '1')
+redis.call('PEXPIRE', state, ARGV[1])
+return 'ok'
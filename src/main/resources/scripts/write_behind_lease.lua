@@ -0,0 +1,17 @@
+-- Takes or renews the write-behind flusher lease, evaluated atomically: a node renews only a lease it still
+-- holds, so it can never extend (and flush under) a lease another node took after its own ran out.
+-- KEYS[1] : lease key
+-- ARGV[1] : name of the calling node
+-- ARGV[2] : lease TTL in ms
+-- returns 1 if the caller holds the lease for another TTL, 0 if another node holds it
+
+local owner = redis.call('GET', KEYS[1])
+if owner == ARGV[1] then
+    redis.call('PEXPIRE', KEYS[1], ARGV[2])
+    return 1
+end
+if owner then
+    return 0
+end
+redis.call('SET', KEYS[1], ARGV[1], 'PX', ARGV[2])
+return 1
@@ -0,0 +1,10 @@
+-- Gives up the write-behind flusher lease, evaluated atomically: only if the calling node still holds it, so a
+-- lease another node took in the meantime is left alone.
+-- KEYS[1] : lease key
+-- ARGV[1] : name of the calling node
+-- returns 1 if the lease was released, 0 if the caller did not hold it
+
+if redis.call('GET', KEYS[1]) == ARGV[1] then
+    return redis.call('DEL', KEYS[1])
+end
+return 0
@@ -0,0 +1,48 @@
+-- Write-behind update of one employee, evaluated atomically: merges the changed fields into the employee's
+-- newest state and queues that state for the database, so concurrent updates of one employee are applied
+-- one after the other, in stream order.
+-- KEYS[1] : hash with the newest state of the employee (employeeId, name, role, salary, version; deleted once
+--           the employee is deleted)
+-- KEYS[2] : write-behind stream
+-- ARGV[1] : employee id
+-- ARGV[2] : state TTL in ms
+-- ARGV[3] : version the update expects the employee to be at ('' = any)
+-- ARGV[4..6] : new name, role, salary ('' = unchanged)
+-- ARGV[7..11] : employeeId, name, role, salary, version of the database row, only given once the script asked
+--               for it: without a state there are no queued updates, so the row is current
+-- returns {'seed'} if there is no state and no row was given, {'gone'} if the employee was deleted,
+-- {'conflict'} if it is not at the expected version (nothing changed),
+-- otherwise {'ok', employeeId, name, role, salary, version} of the new state ('' = null)
+
+local state = KEYS[1]
+if redis.call('EXISTS', state) == 0 then
+    if #ARGV < 11 then
+        return {'seed'}
+    end
+    redis.call('HSET', state, 'employeeId', ARGV[7], 'name', ARGV[8], 'role', ARGV[9], 'salary', ARGV[10],
+            'version', ARGV[11])
+elseif redis.call('HEXISTS', state, 'deleted') == 1 then
+    return {'gone'}
+end
+
+local version = tonumber(redis.call('HGET', state, 'version')) or 0
+if ARGV[3] ~= '' and tonumber(ARGV[3]) ~= version then
+    -- a seeded state is kept: it is the current row either way
+    redis.call('PEXPIRE', state, ARGV[2])
+    return {'conflict'}
+end
+
+local changes = {'name', ARGV[4], 'role', ARGV[5], 'salary', ARGV[6]}
+for i = 1, #changes, 2 do
+    if changes[i + 1] ~= '' then
+        redis.call('HSET', state, changes[i], changes[i + 1])
+    end
+end
+version = version + 1
+redis.call('HSET', state, 'version', string.format('%d', version))
+
+local current = redis.call('HMGET', state, 'employeeId', 'name', 'role', 'salary', 'version')
+redis.call('XADD', KEYS[2], '*', 'id', ARGV[1], 'name', current[2], 'role', current[3], 'salary', current[4],
+        'version', current[5])
+redis.call('PEXPIRE', state, ARGV[2])
+return {'ok', current[1], current[2], current[3], current[4], current[5]}
@@ -0,0 +1,49 @@
+package com.siddardha.redisDemonstration.Cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JitteredTtlTests {
+
+    private static final Duration BASE = Duration.ofMinutes(10);
+
+    @Test
+    void ttlStaysWithinTheJitter() {
+        JitteredTtl ttl = new JitteredTtl(BASE, 0.1);
+        for (long id = 0; id < 10_000; id++) {
+            assertThat(ttl.ttlFor(id)).isBetween(Duration.ofMinutes(9), Duration.ofMinutes(11));
+        }
+        assertThat(ttl.max()).isEqualTo(Duration.ofMinutes(11));
+    }
+
+    @Test
+    void ttlIsSpreadAcrossKeys() {
+        JitteredTtl ttl = new JitteredTtl(BASE, 0.1);
+        Set<Duration> ttls = new HashSet<>();
+        for (long id = 0; id < 1_000; id++) {
+            ttls.add(ttl.ttlFor(id));
+        }
+        assertThat(ttls).hasSizeGreaterThan(500);
+    }
+
+    @Test
+    void sameKeyGetsTheSameTtlOnEveryNode() {
+        JitteredTtl node1 = new JitteredTtl(BASE, 0.1);
+        JitteredTtl node2 = new JitteredTtl(BASE, 0.1);
+        assertThat(node1.ttlFor("employee::42")).isEqualTo(node2.ttlFor("employee::42"));
+        assertThat(node1.getTimeToLive("employee::42", "value")).isEqualTo(node1.ttlFor("employee::42"));
+    }
+
+    @Test
+    void noJitterKeepsTheBaseTtl() {
+        JitteredTtl ttl = new JitteredTtl(BASE, 0);
+        assertThat(ttl.ttlFor(1L)).isEqualTo(BASE);
+        assertThat(ttl.ttlFor("employee::42")).isEqualTo(BASE);
+        assertThat(ttl.max()).isEqualTo(BASE);
+    }
+}
@@ -0,0 +1,137 @@
+package com.siddardha.redisDemonstration.Cache;
+
+import com.siddardha.redisDemonstration.Exception.RedisUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceClientConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import redis.embedded.RedisServer;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+
+/**
+ * RedisCircuitBreaker against an embedded Redis server that is paused (CLIENT PAUSE) or killed and restarted.
+ */
+class RedisCircuitBreakerTests {
+
+    private static final Duration COMMAND_TIMEOUT = Duration.ofMillis(200);
+    private static final int FAILURE_THRESHOLD = 3;
+
+    private int port;
+    private RedisServer redisServer;
+    private LettuceConnectionFactory connectionFactory;
+    private SimpleMeterRegistry meterRegistry;
+    private RedisCircuitBreaker circuitBreaker;
+    private StringRedisTemplate redisTemplate;
+
+    @BeforeEach
+    void start() throws IOException {
+        port = freePort();
+        redisServer = new RedisServer(port);
+        redisServer.start();
+        LettuceClientConfiguration clientConfiguration = LettuceClientConfiguration.builder()
+                .commandTimeout(COMMAND_TIMEOUT)
+                .shutdownTimeout(Duration.ZERO)
+                .build();
+        connectionFactory = new LettuceConnectionFactory(new RedisStandaloneConfiguration("localhost", port), clientConfiguration);
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+
+        meterRegistry = new SimpleMeterRegistry();
+        circuitBreaker = new RedisCircuitBreaker(meterRegistry, FAILURE_THRESHOLD, Duration.ofMillis(500), 1);
+        redisTemplate = new CircuitBreakingStringRedisTemplate(connectionFactory, circuitBreaker);
+    }
+
+    @AfterEach
+    void stop() throws IOException {
+        connectionFactory.destroy();
+        redisServer.stop();
+    }
+
+    @Test
+    void errorRepliesDoNotOpenTheCircuit() {
+        redisTemplate.opsForValue().set("plain", "value");
+        for (int i = 0; i < FAILURE_THRESHOLD * 2; i++) {
+            // WRONGTYPE: Redis answered
+            assertThatThrownBy(() -> redisTemplate.opsForList().leftPop("plain"))
+                    .isNotInstanceOf(RedisUnavailableException.class);
+        }
+        assertThat(circuitBreaker.state()).isEqualTo(RedisCircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void pausedRedisOpensTheCircuitAndRecovers() {
+        redisTemplate.opsForValue().set("key", "value");
+        redisTemplate.execute((RedisCallback<Object>) connection ->
+                connection.execute("CLIENT", bytes("PAUSE"), bytes("1500")));
+
+        tripCircuit();
+        // open: fails at once instead of waiting for the command timeout
+        long start = System.nanoTime();
+        assertThatThrownBy(() -> redisTemplate.opsForValue().get("key")).isInstanceOf(RedisUnavailableException.class);
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(COMMAND_TIMEOUT);
+
+        awaitClosed();
+        assertThat(redisTemplate.opsForValue().get("key")).isEqualTo("value");
+        assertThat(meterRegistry.get("redis.circuit.breaker.calls").tag("outcome", "rejected").counter().count())
+                .isPositive();
+        assertThat(meterRegistry.get("redis.circuit.breaker.transitions").tag("to", "closed").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void killedRedisOpensTheCircuitAndRecoversOnRestart() throws IOException {
+        redisTemplate.opsForValue().set("key", "value");
+        redisServer.stop();
+
+        tripCircuit();
+        assertThat(meterRegistry.get("redis.circuit.breaker.state").tag("state", "open").gauge().value()).isEqualTo(1);
+
+        redisServer = new RedisServer(port);
+        redisServer.start();
+        awaitClosed();
+        assertThat(meterRegistry.get("redis.circuit.breaker.state").tag("state", "closed").gauge().value()).isEqualTo(1);
+    }
+
+    private void tripCircuit() {
+        for (int i = 0; i < FAILURE_THRESHOLD; i++) {
+            assertThatThrownBy(() -> redisTemplate.opsForValue().get("key")).isInstanceOf(RedisUnavailableException.class);
+        }
+        assertThat(circuitBreaker.state()).isEqualTo(RedisCircuitBreaker.State.OPEN);
+        assertThat(meterRegistry.get("redis.circuit.breaker.transitions").tag("to", "open").counter().count())
+                .isEqualTo(1);
+    }
+
+    private void awaitClosed() {
+        await().atMost(Duration.ofSeconds(10)).pollInterval(Duration.ofMillis(100)).until(() -> {
+            try {
+                redisTemplate.opsForValue().get("probe");
+            } catch (RedisUnavailableException ex) {
+                // still open, or the probe failed
+            }
+            return circuitBreaker.state() == RedisCircuitBreaker.State.CLOSED;
+        });
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,250 @@
+package com.siddardha.redisDemonstration.Cache;
+
+import com.siddardha.redisDemonstration.Config.CachingProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import redis.embedded.RedisServer;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+/**
+ * StampedeProtectedCache over a ConcurrentMapCache, with its load lease in an embedded Redis server. Two instances
+ * sharing the map and the server stand in for two nodes.
+ */
+class StampedeProtectedCacheTests {
+
+    private static final Duration LEASE_TIMEOUT = Duration.ofSeconds(2);
+    private static final String KEY = "42";
+    private static final String LOCK_KEY = "lock:employee::" + KEY;
+
+    private RedisServer redisServer;
+    private LettuceConnectionFactory connectionFactory;
+    private StringRedisTemplate redisTemplate;
+    private SimpleMeterRegistry meterRegistry;
+    private ConcurrentMapCache delegate;
+    private ExecutorService executor;
+
+    @BeforeEach
+    void start() throws IOException {
+        int port = freePort();
+        redisServer = new RedisServer(port);
+        redisServer.start();
+        connectionFactory = new LettuceConnectionFactory(new RedisStandaloneConfiguration("localhost", port));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        redisTemplate = new StringRedisTemplate(connectionFactory);
+
+        meterRegistry = new SimpleMeterRegistry();
+        delegate = new ConcurrentMapCache("employee") {
+            // like the application's caches: the loader runs outside any lock on the key
+            @Override
+            @SuppressWarnings("unchecked")
+            public <T> T get(Object key, Callable<T> valueLoader) {
+                ValueWrapper hit = get(key);
+                if (hit != null) {
+                    return (T) hit.get();
+                }
+                T value;
+                try {
+                    value = valueLoader.call();
+                } catch (Exception ex) {
+                    throw new ValueRetrievalException(key, valueLoader, ex);
+                }
+                put(key, value);
+                return value;
+            }
+        };
+        executor = Executors.newCachedThreadPool();
+    }
+
+    @AfterEach
+    void stop() throws IOException {
+        executor.shutdownNow();
+        connectionFactory.destroy();
+        redisServer.stop();
+    }
+
+    @Test
+    void concurrentMissesShareOneLoad() throws Exception {
+        StampedeProtectedCache cache = cache("node-a", 0);
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+
+        List<CompletableFuture<String>> callers = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            callers.add(CompletableFuture.supplyAsync(() -> cache.get(KEY, () -> {
+                loads.incrementAndGet();
+                release.await();
+                return "value";
+            }), executor));
+        }
+        await().atMost(Duration.ofSeconds(5)).until(() -> count("cache.load.coalesced") == 7);
+        release.countDown();
+
+        for (CompletableFuture<String> caller : callers) {
+            assertThat(caller.get(5, TimeUnit.SECONDS)).isEqualTo("value");
+        }
+        assertThat(loads).hasValue(1);
+        assertThat(leases("acquired")).isEqualTo(1);
+        assertThat(redisTemplate.hasKey(LOCK_KEY)).isFalse();
+    }
+
+    @Test
+    void waitingCallerLoadsItselfWhenTheFirstLoadHangs() throws Exception {
+        StampedeProtectedCache cache = cache("node-a", 0);
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<String> first = CompletableFuture.supplyAsync(() -> cache.get(KEY, () -> {
+            loads.incrementAndGet();
+            release.await();
+            return "slow";
+        }), executor);
+        await().atMost(Duration.ofSeconds(5)).until(() -> loads.get() == 1);
+
+        long start = System.nanoTime();
+        String second = cache.get(KEY, () -> "value-" + loads.incrementAndGet());
+
+        assertThat(second).isEqualTo("value-2");
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(LEASE_TIMEOUT.multipliedBy(2));
+        assertThat(leases("timeout")).isEqualTo(1);
+        release.countDown();
+        assertThat(first.get(5, TimeUnit.SECONDS)).isNotNull();
+    }
+
+    @Test
+    void otherNodeWaitsForTheLeaseHolderValue() throws Exception {
+        StampedeProtectedCache nodeA = cache("node-a", 0);
+        StampedeProtectedCache nodeB = cache("node-b", 0);
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<String> loader = CompletableFuture.supplyAsync(() -> nodeA.get(KEY, () -> {
+            loads.incrementAndGet();
+            release.await();
+            return "from-a";
+        }), executor);
+        await().atMost(Duration.ofSeconds(5)).until(() -> "node-a".equals(redisTemplate.opsForValue().get(LOCK_KEY)));
+
+        CountDownLatch waiting = new CountDownLatch(1);
+        CompletableFuture<String> waiter = CompletableFuture.supplyAsync(() -> {
+            waiting.countDown();
+            return nodeB.get(KEY, () -> {
+                loads.incrementAndGet();
+                return "from-b";
+            });
+        }, executor);
+        // the value must not be there before node b asks: it would be a plain hit
+        waiting.await();
+        Thread.sleep(200);
+        assertThat(waiter).isNotDone();
+        release.countDown();
+
+        assertThat(loader.get(5, TimeUnit.SECONDS)).isEqualTo("from-a");
+        assertThat(waiter.get(5, TimeUnit.SECONDS)).isEqualTo("from-a");
+        assertThat(loads).hasValue(1);
+        assertThat(leases("waited")).isEqualTo(1);
+    }
+
+    @Test
+    void leaseReleasedWithoutValueIsTakenOver() throws Exception {
+        StampedeProtectedCache cache = cache("node-b", 0);
+        // a node holds the lease and gives up (its load failed)
+        redisTemplate.opsForValue().set(LOCK_KEY, "node-a", 1, TimeUnit.MINUTES);
+        CompletableFuture<String> waiter = CompletableFuture.supplyAsync(() -> cache.get(KEY, () -> "from-b"), executor);
+        Thread.sleep(200);
+        assertThat(waiter).isNotDone();
+
+        redisTemplate.delete(LOCK_KEY);
+
+        assertThat(waiter.get(LEASE_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS)).isEqualTo("from-b");
+        assertThat(leases("acquired")).isEqualTo(1);
+        assertThat(leases("timeout")).isZero();
+    }
+
+    @Test
+    void hitsRefreshTheEntryAheadOfExpiry() {
+        // a huge beta makes practically every hit due for a refresh
+        StampedeProtectedCache cache = cache("node-a", 1e9);
+        AtomicInteger loads = new AtomicInteger();
+
+        assertThat(cache.get(KEY, () -> "value-" + loads.incrementAndGet())).isEqualTo("value-1");
+        await().atMost(Duration.ofSeconds(5)).until(() -> {
+            cache.get(KEY, () -> "value-" + loads.incrementAndGet());
+            return count("cache.refresh.ahead") >= 1;
+        });
+
+        assertThat(loads.get()).isGreaterThanOrEqualTo(2);
+        assertThat(delegate.get(KEY, String.class)).isEqualTo("value-" + loads.get());
+    }
+
+    @Test
+    void hitsReadAroundTheCacheRefreshAheadToo() {
+        StampedeProtectedCache cache = cache("node-a", 1e9);
+        AtomicInteger loads = new AtomicInteger();
+        cache.get(KEY, () -> "value-" + loads.incrementAndGet());
+
+        // as a caller serving the stored entry directly does
+        cache.refreshIfDue(KEY, () -> "value-" + loads.incrementAndGet());
+
+        assertThat(loads).hasValue(2);
+        assertThat(count("cache.refresh.ahead")).isEqualTo(1);
+        assertThat(delegate.get(KEY, String.class)).isEqualTo("value-2");
+    }
+
+    @Test
+    void noRefreshAheadWhenDisabledOrNotLoadedHere() {
+        AtomicInteger loads = new AtomicInteger();
+        StampedeProtectedCache disabled = cache("node-a", 0);
+        disabled.get(KEY, () -> "value-" + loads.incrementAndGet());
+        StampedeProtectedCache otherNode = cache("node-b", 1e9);
+
+        for (int i = 0; i < 20; i++) {
+            disabled.get(KEY, () -> "value-" + loads.incrementAndGet());
+            otherNode.get(KEY, () -> "value-" + loads.incrementAndGet());
+        }
+
+        assertThat(loads).hasValue(1);
+        assertThat(count("cache.refresh.ahead")).isZero();
+    }
+
+    private StampedeProtectedCache cache(String node, double refreshBeta) {
+        CachingProperties.Stampede settings = new CachingProperties.Stampede();
+        settings.setLeaseTimeout(LEASE_TIMEOUT);
+        settings.setRefreshBeta(refreshBeta);
+        return new StampedeProtectedCache(delegate, redisTemplate, new JitteredTtl(Duration.ofMinutes(10), 0),
+                settings, node, meterRegistry);
+    }
+
+    private double count(String name) {
+        return meterRegistry.get(name).counter().count();
+    }
+
+    private double leases(String result) {
+        return meterRegistry.get("cache.load.lease").tag("result", result).counter().count();
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,231 @@
+package com.siddardha.redisDemonstration.Service;
+
+import com.siddardha.redisDemonstration.Cache.EmployeePageCache;
+import com.siddardha.redisDemonstration.Cache.JitteredTtl;
+import com.siddardha.redisDemonstration.Exception.EmployeeNotFoundException;
+import com.siddardha.redisDemonstration.Exception.EmployeeVersionConflictException;
+import com.siddardha.redisDemonstration.Model.Employee;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.RedisStreamCommands.XClaimOptions;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.connection.stream.PendingMessage;
+import org.springframework.data.redis.connection.stream.PendingMessages;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import redis.embedded.RedisServer;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * EmployeeWriteBehindService against an embedded Redis server and an H2 database, flushing by hand (the flusher
+ * thread is not started). A second service on the same Redis and database stands in for another node.
+ */
+class EmployeeWriteBehindServiceTests {
+
+    private static final String LEASE_KEY = "employees:write-behind:flusher";
+    private static final String GROUP = "employee-flusher";
+
+    private RedisServer redisServer;
+    private LettuceConnectionFactory connectionFactory;
+    private StringRedisTemplate redisTemplate;
+    private EmbeddedDatabase database;
+    private JdbcTemplate jdbcTemplate;
+    private SimpleMeterRegistry meterRegistry;
+    private EmployeeWriteBehindService writeBehind;
+
+    @BeforeEach
+    void start() throws IOException {
+        int port = freePort();
+        redisServer = new RedisServer(port);
+        redisServer.start();
+        connectionFactory = new LettuceConnectionFactory(new RedisStandaloneConfiguration("localhost", port));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        redisTemplate = new StringRedisTemplate(connectionFactory);
+
+        database = new EmbeddedDatabaseBuilder().setType(EmbeddedDatabaseType.H2).generateUniqueName(true).build();
+        jdbcTemplate = new JdbcTemplate(database);
+        jdbcTemplate.execute("create table employee (id bigint primary key, employee_id varchar(255), "
+                + "name varchar(255), role varchar(255), salary double precision, version bigint)");
+        for (long id = 1; id <= 3; id++) {
+            jdbcTemplate.update("insert into employee values (?, ?, ?, ?, ?, 0)", id, "EMP-" + id, "Employee " + id,
+                    "Engineer", 50_000.0);
+        }
+
+        meterRegistry = new SimpleMeterRegistry();
+        writeBehind = service(meterRegistry);
+    }
+
+    @AfterEach
+    void stop() throws IOException {
+        database.shutdown();
+        connectionFactory.destroy();
+        redisServer.stop();
+    }
+
+    @Test
+    void flushWritesTheLastStatePerEmployee() {
+        writeBehind.update(1, null, "Alice", null, null);
+        writeBehind.update(1, null, null, "Lead", null);
+        Employee latest = writeBehind.update(1, null, null, null, 90_000.0);
+        writeBehind.update(2, null, "Bob", null, null);
+
+        assertThat(latest.getVersion()).isEqualTo(3);
+        assertThat(row(1)).containsEntry("NAME", "Employee 1");
+        assertThat(writeBehind.flush()).isEqualTo(4);
+
+        assertThat(row(1)).containsEntry("NAME", "Alice").containsEntry("ROLE", "Lead")
+                .containsEntry("SALARY", 90_000.0).containsEntry("VERSION", 3L);
+        assertThat(row(2)).containsEntry("NAME", "Bob").containsEntry("VERSION", 1L);
+        assertThat(updates("flushed")).isEqualTo(2);
+        assertThat(updates("coalesced")).isEqualTo(2);
+        assertThat(redisTemplate.opsForStream().size(EmployeeWriteBehindService.STREAM_KEY)).isZero();
+        assertThat(writeBehind.flush()).isZero();
+    }
+
+    @Test
+    void queuedStateIsReadAheadOfTheRow() {
+        writeBehind.update(1, null, "Alice", null, null);
+
+        assertThat(writeBehind.queuedState(1).getName()).isEqualTo("Alice");
+        assertThat(writeBehind.queuedState(2)).isNull();
+        assertThat(writeBehind.queuedStates(List.of(1L, 2L))).containsOnlyKeys(1L);
+    }
+
+    @Test
+    void unacknowledgedEntriesAreFlushedAgainAfterAFailure() {
+        writeBehind.update(1, null, "Alice", null, null);
+        jdbcTemplate.execute("alter table employee rename to employee_away");
+
+        assertThatThrownBy(writeBehind::flush).isInstanceOf(RuntimeException.class);
+        assertThat(redisTemplate.opsForStream().size(EmployeeWriteBehindService.STREAM_KEY)).isEqualTo(1);
+
+        jdbcTemplate.execute("alter table employee_away rename to employee");
+        assertThat(writeBehind.flush()).isEqualTo(1);
+        assertThat(row(1)).containsEntry("NAME", "Alice").containsEntry("VERSION", 1L);
+        assertThat(redisTemplate.opsForStream().size(EmployeeWriteBehindService.STREAM_KEY)).isZero();
+    }
+
+    @Test
+    void entriesOfAFailedNodeAreFlushedByAnother() {
+        writeBehind.update(1, null, "Alice", null, null);
+        jdbcTemplate.execute("alter table employee rename to employee_away");
+        assertThatThrownBy(writeBehind::flush).isInstanceOf(RuntimeException.class);
+        jdbcTemplate.execute("alter table employee_away rename to employee");
+
+        // the node dies: its lease runs out, and the entry pending in its name stays untouched for longer
+        redisTemplate.delete(LEASE_KEY);
+        PendingMessage entry = pending().get(0);
+        redisTemplate.opsForStream().claim(EmployeeWriteBehindService.STREAM_KEY, GROUP, entry.getConsumerName(),
+                XClaimOptions.minIdle(Duration.ZERO).ids(entry.getId()).idle(Duration.ofMinutes(1)));
+        EmployeeWriteBehindService otherNode = service(new SimpleMeterRegistry());
+
+        assertThat(otherNode.flush()).isEqualTo(1);
+        assertThat(row(1)).containsEntry("NAME", "Alice");
+        assertThat(redisTemplate.opsForStream().size(EmployeeWriteBehindService.STREAM_KEY)).isZero();
+    }
+
+    @Test
+    void entriesOfASlowNodeAreNotTakenOver() {
+        writeBehind.update(1, null, "Alice", null, null);
+        jdbcTemplate.execute("alter table employee rename to employee_away");
+        assertThatThrownBy(writeBehind::flush).isInstanceOf(RuntimeException.class);
+        jdbcTemplate.execute("alter table employee_away rename to employee");
+
+        // the lease ran out during a slow flush: the node may still be writing the entry
+        redisTemplate.delete(LEASE_KEY);
+        EmployeeWriteBehindService otherNode = service(new SimpleMeterRegistry());
+
+        assertThat(otherNode.flush()).isZero();
+        assertThat(row(1)).containsEntry("NAME", "Employee 1");
+        assertThat(pending()).hasSize(1);
+    }
+
+    @Test
+    void olderStatesDoNotOverwriteNewerRows() {
+        writeBehind.update(1, null, "Alice", null, null);
+        // a newer state of the employee reached the row first, through a flusher whose lease ran out meanwhile
+        jdbcTemplate.update("update employee set name = 'Newer', version = 2 where id = 1");
+
+        assertThat(writeBehind.flush()).isEqualTo(1);
+        assertThat(row(1)).containsEntry("NAME", "Newer").containsEntry("VERSION", 2L);
+        assertThat(updates("dropped")).isEqualTo(1);
+        assertThat(redisTemplate.opsForStream().size(EmployeeWriteBehindService.STREAM_KEY)).isZero();
+    }
+
+    @Test
+    void updatesOfDeletedEmployeesAreDropped() {
+        writeBehind.update(1, null, "Alice", null, null);
+        writeBehind.update(2, null, "Bob", null, null);
+        // deleted through the service: the state is marked, the row goes
+        writeBehind.delete(1, null);
+        jdbcTemplate.update("delete from employee where id = 1");
+        // deleted behind the service's back
+        jdbcTemplate.update("delete from employee where id = 2");
+
+        assertThat(writeBehind.flush()).isEqualTo(2);
+        assertThat(jdbcTemplate.queryForObject("select count(*) from employee", Long.class)).isEqualTo(1);
+        assertThat(updates("dropped")).isEqualTo(2);
+        assertThatThrownBy(() -> writeBehind.update(1, null, "Again", null, null))
+                .isInstanceOf(EmployeeNotFoundException.class);
+        assertThatThrownBy(() -> writeBehind.queuedState(1)).isInstanceOf(EmployeeNotFoundException.class);
+    }
+
+    @Test
+    void versionIsCheckedAgainstTheNewestState() {
+        writeBehind.update(1, 0L, "Alice", null, null);
+
+        assertThatThrownBy(() -> writeBehind.update(1, 0L, "Stale", null, null))
+                .isInstanceOf(EmployeeVersionConflictException.class);
+        assertThatThrownBy(() -> writeBehind.delete(1, 0L)).isInstanceOf(EmployeeVersionConflictException.class);
+        assertThat(writeBehind.update(1, 1L, null, "Lead", null))
+                .extracting(Employee::getName, Employee::getVersion)
+                .containsExactly("Alice", 2L);
+        assertThatThrownBy(() -> writeBehind.update(4, null, "Nobody", null, null))
+                .isInstanceOf(EmployeeNotFoundException.class);
+    }
+
+    private EmployeeWriteBehindService service(MeterRegistry registry) {
+        EmployeePageCache pageCache = new EmployeePageCache(new ConcurrentMapCacheManager(), redisTemplate,
+                new JitteredTtl(Duration.ofMinutes(10), 0));
+        return new EmployeeWriteBehindService(redisTemplate, jdbcTemplate, pageCache,
+                new DataSourceTransactionManager(database), registry, true, Duration.ofMillis(500), 100,
+                Duration.ofHours(1));
+    }
+
+    private PendingMessages pending() {
+        return redisTemplate.opsForStream().pending(EmployeeWriteBehindService.STREAM_KEY, GROUP, Range.unbounded(), 10);
+    }
+
+    private Map<String, Object> row(long id) {
+        return jdbcTemplate.queryForMap("select * from employee where id = ?", id);
+    }
+
+    private double updates(String stage) {
+        return meterRegistry.get("employee.write.behind.updates").tag("stage", stage).counter().count();
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}